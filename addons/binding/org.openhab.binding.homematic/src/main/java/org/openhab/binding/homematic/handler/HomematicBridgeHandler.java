@@ -9,7 +9,12 @@
 package org.openhab.binding.homematic.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -235,6 +240,32 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
         }
     }
 
+    @Override
+    public void onStatesUpdated(List<HmDatapoint> dps) {
+        // group the datapoints by device to update each thing only once
+        Map<HmDevice, List<HmDatapoint>> datapointsByDevice = new LinkedHashMap<HmDevice, List<HmDatapoint>>();
+        for (HmDatapoint dp : dps) {
+            HmDevice device = dp.getChannel().getDevice();
+            List<HmDatapoint> deviceDatapoints = datapointsByDevice.get(device);
+            if (deviceDatapoints == null) {
+                deviceDatapoints = new ArrayList<HmDatapoint>();
+                datapointsByDevice.put(device, deviceDatapoints);
+            }
+            deviceDatapoints.add(dp);
+        }
+
+        for (Entry<HmDevice, List<HmDatapoint>> entry : datapointsByDevice.entrySet()) {
+            Thing hmThing = getThingByUID(UidUtils.generateThingUID(entry.getKey(), getThing()));
+            if (hmThing != null && hmThing.getHandler() != null) {
+                final ThingStatus status = hmThing.getStatus();
+                if (status == ThingStatus.ONLINE || status == ThingStatus.OFFLINE) {
+                    HomematicThingHandler thingHandler = (HomematicThingHandler) hmThing.getHandler();
+                    thingHandler.updateDatapointStates(entry.getValue());
+                }
+            }
+        }
+    }
+
     @Override
     public HmDatapointConfig getDatapointConfig(HmDatapoint dp) {
         Thing hmThing = getThingByUID(UidUtils.generateThingUID(dp.getChannel().getDevice(), getThing()));
@@ -13,6 +13,8 @@ import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -209,30 +211,56 @@ public class HomematicThingHandler extends BaseThingHandler {
      * Sets the configuration or evaluates the channel for this datapoint and updates the state of the channel.
      */
     protected void updateDatapointState(HmDatapoint dp) {
+        updateDatapointStates(Collections.singletonList(dp));
+    }
+
+    /**
+     * Updates the states of multiple datapoints of this thing, the thing status and the configuration are updated
+     * only once.
+     */
+    protected void updateDatapointStates(List<HmDatapoint> dps) {
         try {
-            if (HomematicTypeGeneratorImpl.isStatusDatapoint(dp)) {
-                updateStatus(dp.getChannel().getDevice());
-            }
-            if (dp.getParamsetType() == HmParamsetType.MASTER) {
-                // update configuration
-                Configuration config = editConfiguration();
-                config.put(MetadataUtils.getParameterName(dp), dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
-                updateConfiguration(config);
-            } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
-                // update channel
-                ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
-                Channel channel = thing.getChannel(channelUID.getId());
-                if (channel != null) {
-                    updateChannelState(dp, channel);
-                } else {
-                    logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
+            for (HmDatapoint dp : dps) {
+                if (HomematicTypeGeneratorImpl.isStatusDatapoint(dp)) {
+                    updateStatus(dp.getChannel().getDevice());
+                    break;
                 }
             }
         } catch (BridgeHandlerNotAvailableException ex) {
-            // ignore
+            return;
         } catch (Exception ex) {
             logger.error("{}", ex.getMessage(), ex);
         }
+
+        Configuration config = null;
+        for (HmDatapoint dp : dps) {
+            try {
+                if (dp.getParamsetType() == HmParamsetType.MASTER) {
+                    // update configuration
+                    if (config == null) {
+                        config = editConfiguration();
+                    }
+                    config.put(MetadataUtils.getParameterName(dp),
+                            dp.isEnumType() ? dp.getOptionValue() : dp.getValue());
+                } else if (!HomematicTypeGeneratorImpl.isIgnoredDatapoint(dp)) {
+                    // update channel
+                    ChannelUID channelUID = UidUtils.generateChannelUID(dp, thing.getUID());
+                    Channel channel = thing.getChannel(channelUID.getId());
+                    if (channel != null) {
+                        updateChannelState(dp, channel);
+                    } else {
+                        logger.warn("Channel not found for datapoint '{}'", new HmDatapointInfo(dp));
+                    }
+                }
+            } catch (BridgeHandlerNotAvailableException ex) {
+                return;
+            } catch (Exception ex) {
+                logger.error("{}", ex.getMessage(), ex);
+            }
+        }
+        if (config != null) {
+            updateConfiguration(config);
+        }
     }
 
     /**
@@ -45,8 +45,11 @@ public class HomematicConfig {
     private String callbackHost;
     private int xmlCallbackPort;
     private int binCallbackPort;
+    private boolean nioCallbackServer;
 
     private int socketMaxAlive = 900;
+    private int connectionPoolSize = 4;
+    private int valueRefreshInterval;
     private int timeout = 15;
 
     private HmGatewayInfo gatewayInfo;
@@ -117,6 +120,20 @@ public class HomematicConfig {
         this.binCallbackPort = binCallbackPort;
     }
 
+    /**
+     * Returns true, if the BIN-RPC callback server multiplexes all connections on a single NIO selector.
+     */
+    public boolean isNioCallbackServer() {
+        return nioCallbackServer;
+    }
+
+    /**
+     * Sets the BIN-RPC callback server mode, true for a single NIO selector, false for a thread per connection.
+     */
+    public void setNioCallbackServer(boolean nioCallbackServer) {
+        this.nioCallbackServer = nioCallbackServer;
+    }
+
     /**
      * Returns the HmGatewayInfo.
      */
@@ -145,6 +162,35 @@ public class HomematicConfig {
         this.socketMaxAlive = socketMaxAlive;
     }
 
+    /**
+     * Returns the max number of concurrent connections to a Homematic gateway per transfer mode.
+     */
+    public int getConnectionPoolSize() {
+        return Math.max(1, connectionPoolSize);
+    }
+
+    /**
+     * Sets the max number of concurrent connections to a Homematic gateway per transfer mode.
+     */
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    /**
+     * Returns the max age of channel values in seconds before they are refreshed from the Homematic gateway, 0 if
+     * disabled.
+     */
+    public int getValueRefreshInterval() {
+        return valueRefreshInterval;
+    }
+
+    /**
+     * Sets the max age of channel values in seconds before they are refreshed from the Homematic gateway.
+     */
+    public void setValueRefreshInterval(int valueRefreshInterval) {
+        this.valueRefreshInterval = valueRefreshInterval;
+    }
+
     /**
      * Returns the timeout for the communication to a Homematic gateway in seconds.
      */
@@ -297,9 +343,11 @@ public class HomematicConfig {
         ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
         tsb.append("gatewayAddress", gatewayAddress).append("callbackHost", callbackHost)
                 .append("xmlCallbackPort", xmlCallbackPort).append("binCallbackPort", binCallbackPort)
+                .append("nioCallbackServer", nioCallbackServer)
                 .append("gatewayType", gatewayType).append("rfPort", getRfPort()).append("wiredPort", getWiredPort())
                 .append("hmIpPort", getHmIpPort()).append("cuxdPort", getCuxdPort()).append("groupPort", getGroupPort())
-                .append("timeout", timeout).append("socketMaxAlive", socketMaxAlive);
+                .append("timeout", timeout).append("socketMaxAlive", socketMaxAlive)
+                .append("connectionPoolSize", connectionPoolSize).append("valueRefreshInterval", valueRefreshInterval);
         return tsb.toString();
     }
 }
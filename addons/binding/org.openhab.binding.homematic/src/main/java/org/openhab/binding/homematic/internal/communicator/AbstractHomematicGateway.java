@@ -10,22 +10,33 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
@@ -56,8 +67,10 @@ import org.openhab.binding.homematic.internal.communicator.virtual.SignalStrengt
 import org.openhab.binding.homematic.internal.communicator.virtual.StateContactVirtualDatapointHandler;
 import org.openhab.binding.homematic.internal.communicator.virtual.VirtualDatapointHandler;
 import org.openhab.binding.homematic.internal.communicator.virtual.VirtualGateway;
+import org.openhab.binding.homematic.internal.misc.DatapointIndex;
 import org.openhab.binding.homematic.internal.misc.DelayedExecuter;
 import org.openhab.binding.homematic.internal.misc.DelayedExecuter.DelayedExecuterCallback;
+import org.openhab.binding.homematic.internal.misc.DeviceMetadataStore;
 import org.openhab.binding.homematic.internal.misc.HomematicClientException;
 import org.openhab.binding.homematic.internal.misc.MiscUtils;
 import org.openhab.binding.homematic.internal.model.HmChannel;
@@ -83,6 +96,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_STORE_FOLDER = "homematic";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
+    private static final int METADATA_PROGRESS_INTERVAL = 50;
 
     private Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<TransferMode, RpcClient<?>>();
     private Map<TransferMode, RpcServer> rpcServers = new HashMap<TransferMode, RpcServer>();
@@ -98,9 +114,17 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<String, HmDevice>());
     private Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<HmInterface, TransferMode>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<VirtualDatapointHandler>();
-    private boolean cancelLoadAllMetadata;
+    private DeviceMetadataStore metadataStore;
+    private DatapointIndex datapointIndex = new DatapointIndex();
+    private ValueRefreshScheduler valueRefreshScheduler;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
 
+    private final AtomicLong dispatchedBatches = new AtomicLong();
+    private final AtomicLong dispatchedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong dispatchNanos = new AtomicLong();
+
     static {
         // loads all virtual datapoints
         virtualDatapointHandlers.add(new BatteryTypeVirtualDatapointHandler());
@@ -126,6 +150,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.id = id;
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
+        this.valueRefreshScheduler = new ValueRefreshScheduler(this, config);
+        this.metadataStore = new DeviceMetadataStore(new File(
+                ConfigConstants.getUserDataFolder() + File.separator + METADATA_STORE_FOLDER, id + ".metadata"));
     }
 
     @Override
@@ -184,6 +211,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         stopServers();
         stopClients();
         devices.clear();
+        datapointIndex.clear();
         echoEvents.clear();
         availableInterfaces.clear();
         config.setGatewayInfo(null);
@@ -256,6 +284,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         connectionTrackerThread = new ConnectionTrackerThread();
         connectionTrackerFuture = scheduler.scheduleWithFixedDelay(connectionTrackerThread, 30,
                 CONNECTION_TRACKER_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        valueRefreshScheduler.start(scheduler);
     }
 
     private void stopWatchdogs() {
@@ -263,6 +292,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             connectionTrackerFuture.cancel(true);
         }
         connectionTrackerThread = null;
+        valueRefreshScheduler.stop();
+    }
+
+    /**
+     * Returns the scheduler which refreshes the stale channel values.
+     */
+    public ValueRefreshScheduler getValueRefreshScheduler() {
+        return valueRefreshScheduler;
     }
 
     /**
@@ -339,65 +376,141 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     @Override
     public void loadAllDeviceMetadata() throws IOException {
         cancelLoadAllMetadata = false;
+        long startTime = System.currentTimeMillis();
+        metadataStore.load();
+
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
-
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<String>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new TreeMap<HmInterface, List<HmDevice>>();
         for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints().values());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (channel.getDatapoint(HmParamsetType.MASTER,
-                                            DATAPOINT_NAME_CHANNEL_FUNCTION) == null) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints().values());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
+            List<HmDevice> interfaceDevices = devicesByInterface.get(device.getHmInterface());
+            if (interfaceDevices == null) {
+                interfaceDevices = new ArrayList<HmDevice>();
+                devicesByInterface.put(device.getHmInterface(), interfaceDevices);
+            }
+            interfaceDevices.add(device);
+        }
+
+        // loading datapoints for all channels, each interface in parallel
+        MetadataLoadContext context = new MetadataLoadContext(deviceDescriptions.size());
+        ExecutorService executor = ThreadPoolManager.getPool(METADATA_POOL_NAME);
+        Map<HmInterface, Future<?>> futures = new TreeMap<HmInterface, Future<?>>();
+        for (Entry<HmInterface, List<HmDevice>> entry : devicesByInterface.entrySet()) {
+            futures.put(entry.getKey(),
+                    executor.submit(() -> loadInterfaceMetadata(entry.getKey(), entry.getValue(), context)));
+        }
+        for (Entry<HmInterface, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancelLoadAllMetadata = true;
+                for (Future<?> future : futures.values()) {
+                    future.cancel(true);
                 }
+                throw new IOException("Interrupted while loading metadata from gateway " + id, ex);
+            } catch (ExecutionException ex) {
+                logger.warn("Can't load metadata of interface {} from gateway '{}': {}", entry.getKey(), id,
+                        ex.getCause().getMessage(), ex.getCause());
             }
         }
+
         if (!cancelLoadAllMetadata) {
-            devices.keySet().retainAll(loadedDevices);
+            devices.keySet().retainAll(context.loadedDevices);
+            datapointIndex.retainAll(context.loadedDevices);
+            metadataStore.save();
         }
+        logger.info("Loaded metadata of {} devices from gateway '{}' in {} ms ({} channels from store, {} loaded)",
+                context.loadedDevices.size(), id, System.currentTimeMillis() - startTime,
+                context.storedChannels.get(), context.loadedChannels.get());
         initialized = true;
     }
 
+    /**
+     * Loads the metadata of all devices of one interface. The requests are limited by the connection pool of the RPC
+     * client, so interfaces sharing a RPC client don't overload the gateway.
+     */
+    private void loadInterfaceMetadata(HmInterface hmInterface, List<HmDevice> interfaceDevices,
+            MetadataLoadContext context) {
+        long startTime = System.currentTimeMillis();
+        int loadedDevices = 0;
+        for (HmDevice device : interfaceDevices) {
+            if (cancelLoadAllMetadata) {
+                break;
+            }
+            try {
+                loadDeviceMetadata(device, context);
+                synchronized (context) {
+                    prepareDevice(device);
+                    context.loadedDevices.add(device.getAddress());
+                    gatewayAdapter.onDeviceLoaded(device);
+                }
+                loadedDevices++;
+            } catch (IOException ex) {
+                logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                        ex.getMessage());
+            }
+
+            int processed = context.processedDevices.incrementAndGet();
+            if (processed % METADATA_PROGRESS_INTERVAL == 0) {
+                logger.debug("Loaded metadata of {}/{} devices from gateway '{}'", processed, context.deviceCount,
+                        id);
+            }
+        }
+        logger.debug("Loaded metadata of {} devices of interface {} from gateway '{}' in {} ms", loadedDevices,
+                hmInterface, id, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Loads the datapoints of all channels of the device, from the metadata store if available.
+     */
+    private void loadDeviceMetadata(HmDevice device, MetadataLoadContext context) throws IOException {
+        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+        if (device.isGatewayExtras()) {
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            return;
+        }
+        for (HmChannel channel : device.getChannels()) {
+            logger.trace("  Loading channel {}", channel);
+            // speed up metadata generation a little bit for equal channels in the gateway devices
+            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType()) || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType()))
+                    && channel.getNumber() > 1) {
+                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints().values());
+            } else {
+                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
+                        channel.getDevice().getFirmware(), channel.getNumber());
+                Collection<HmDatapoint> cachedDatapoints = context.datapointsByChannelId.get(channelId);
+                if (cachedDatapoints == null) {
+                    cachedDatapoints = metadataStore.getDatapoints(channelId);
+                    if (cachedDatapoints != null) {
+                        context.storedChannels.incrementAndGet();
+                        context.datapointsByChannelId.put(channelId, cachedDatapoints);
+                    }
+                }
+                if (cachedDatapoints != null) {
+                    // clone all datapoints
+                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                } else {
+                    logger.trace("    Loading datapoints into channel {}", channel);
+                    addChannelDatapoints(channel, HmParamsetType.MASTER);
+                    addChannelDatapoints(channel, HmParamsetType.VALUES);
+                    context.loadedChannels.incrementAndGet();
+
+                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                    // the data point set might change depending on the selected mode.
+                    if (channel.getDatapoint(HmParamsetType.MASTER, DATAPOINT_NAME_CHANNEL_FUNCTION) == null) {
+                        // other interfaces' loader threads read the cached datapoints, don't share the live map view
+                        List<HmDatapoint> datapoints = new ArrayList<HmDatapoint>(channel.getDatapoints().values());
+                        context.datapointsByChannelId.put(channelId, datapoints);
+                        metadataStore.putDatapoints(channelId, datapoints);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -458,6 +571,51 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             setChannelDatapointValues(channel, HmParamsetType.VALUES);
         }
 
+        handleVirtualDatapointEvents(channel);
+        channel.setLastValuesUpdate(System.currentTimeMillis());
+        channel.setInitialized(true);
+    }
+
+    /**
+     * Reloads the values of the channel from the gateway and publishes the values which have changed. Trigger and
+     * virtual datapoints are left out, a refresh must not fire events or recalculate virtual values.
+     */
+    void refreshChannelValues(HmChannel channel) throws IOException {
+        logger.debug("Refreshing values for channel {} of device '{}'", channel, channel.getDevice().getAddress());
+        Map<HmDatapoint, Object> previousValues = new IdentityHashMap<HmDatapoint, Object>();
+        for (HmDatapoint dp : channel.getDatapoints().values()) {
+            if (isRefreshable(dp)) {
+                previousValues.put(dp, dp.getValue());
+            }
+        }
+
+        setChannelDatapointValues(channel, HmParamsetType.VALUES);
+        channel.setLastValuesUpdate(System.currentTimeMillis());
+
+        List<HmDatapoint> dps = new ArrayList<HmDatapoint>();
+        for (Entry<HmDatapoint, Object> entry : previousValues.entrySet()) {
+            HmDatapoint dp = entry.getKey();
+            if (!ObjectUtils.equals(entry.getValue(), dp.getValue())) {
+                dps.add(dp);
+            }
+        }
+        if (!dps.isEmpty()) {
+            gatewayAdapter.onStatesUpdated(dps);
+        }
+    }
+
+    /**
+     * Returns true, if the value of the datapoint can be published after a background refresh.
+     */
+    private boolean isRefreshable(HmDatapoint dp) {
+        return dp.getParamsetType() == HmParamsetType.VALUES && !dp.isTrigger() && !dp.isPressDatapoint()
+                && !dp.isVirtual();
+    }
+
+    /**
+     * Lets the virtual datapoint handlers calculate their values after the values of the channel have been loaded.
+     */
+    private void handleVirtualDatapointEvents(HmChannel channel) {
         for (HmDatapoint dp : channel.getDatapoints().values()) {
             for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
                 if (vdph.canHandleEvent(dp)) {
@@ -465,8 +623,22 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                 }
             }
         }
+    }
 
-        channel.setInitialized(true);
+    /**
+     * Returns the duty cycle of the default interface in percent, null if not supported by the gateway.
+     */
+    Integer loadDutyCycle() throws IOException {
+        return getRpcClient(getDefaultInterface()).listBidcosInterfaces(getDefaultInterface()).getDutyCycle();
+    }
+
+    /**
+     * Returns a snapshot of all loaded devices.
+     */
+    List<HmDevice> getDeviceSnapshot() {
+        synchronized (devices) {
+            return new ArrayList<HmDevice>(devices.values());
+        }
     }
 
     /**
@@ -595,40 +767,152 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
     @Override
     public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
-        String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
-        logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue, dpInfo,
-                id);
+        eventsReceived(Collections.singletonList(new SimpleImmutableEntry<HmDatapointInfo, Object>(dpInfo, newValue)));
+    }
 
-        if (echoEvents.remove(dpInfo)) {
-            logger.debug("Echo event detected, ignoring '{}'", dpInfo);
-        } else {
-            try {
+    @Override
+    public void eventsReceived(List<Entry<HmDatapointInfo, Object>> events) {
+        long startTime = System.nanoTime();
+        List<Entry<HmDatapointInfo, Object>> acceptedEvents = new ArrayList<Entry<HmDatapointInfo, Object>>(
+                events.size());
+        for (Entry<HmDatapointInfo, Object> event : events) {
+            HmDatapointInfo dpInfo = event.getKey();
+            Object newValue = event.getValue();
+            if (logger.isDebugEnabled()) {
+                String className = newValue == null ? "Unknown" : newValue.getClass().getSimpleName();
+                logger.debug("Received new ({}) value '{}' for '{}' from gateway with id '{}'", className, newValue,
+                        dpInfo, id);
+            }
+
+            if (echoEvents.remove(dpInfo)) {
+                logger.debug("Echo event detected, ignoring '{}'", dpInfo);
+            } else {
                 if (connectionTrackerThread != null && dpInfo.isPong() && id.equals(newValue)) {
                     connectionTrackerThread.pongReceived();
                 }
                 if (initialized) {
-                    final HmDatapoint dp = getDatapoint(dpInfo);
-                    HmDatapointConfig config = gatewayAdapter.getDatapointConfig(dp);
-                    receiveDelayedExecutor.start(dpInfo, config.getReceiveDelay(), () -> {
-                        dp.setValue(newValue);
+                    acceptedEvents.add(event);
+                }
+            }
+        }
+        if (acceptedEvents.isEmpty()) {
+            return;
+        }
 
-                        gatewayAdapter.onStateUpdated(dp);
-                        if (dp.isPressDatapoint() && MiscUtils.isTrueValue(dp.getValue())) {
-                            disableDatapoint(dp, DEFAULT_DISABLE_DELAY);
-                        }
-                        for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
-                            if (vdph.canHandleEvent(dp)) {
-                                vdph.handleEvent(this, dp);
-                                gatewayAdapter.onStateUpdated(vdph.getVirtualDatapoint(dp.getChannel()));
-                            }
-                        }
+        // resolve all datapoints with the index, only datapoints not indexed are searched in the device map
+        HmDatapoint[] datapoints = new HmDatapoint[acceptedEvents.size()];
+        for (int i = 0; i < datapoints.length; i++) {
+            HmDatapointInfo dpInfo = acceptedEvents.get(i).getKey();
+            HmDatapoint dp = datapointIndex.get(dpInfo.getAddress(), dpInfo.getChannel(), dpInfo.getName());
+            if (dp == null) {
+                synchronized (devices) {
+                    HmDevice device = devices.get(dpInfo.getAddress());
+                    HmChannel channel = device == null ? null : device.getChannel(dpInfo.getChannel());
+                    dp = channel == null ? null : channel.getDatapoint(dpInfo);
+                }
+            }
+            datapoints[i] = dp;
+        }
 
+        // coalesce multiple values for the same datapoint, triggers and press events are never coalesced
+        List<HmDatapoint> updatedDatapoints = new ArrayList<HmDatapoint>(datapoints.length);
+        List<Object> updatedValues = new ArrayList<Object>(datapoints.length);
+        Map<HmDatapoint, Integer> positions = new IdentityHashMap<HmDatapoint, Integer>();
+        int coalesced = 0;
+        for (int i = 0; i < datapoints.length; i++) {
+            final HmDatapoint dp = datapoints[i];
+            if (dp == null) {
+                continue;
+            }
+            final Object newValue = acceptedEvents.get(i).getValue();
+            double receiveDelay = gatewayAdapter.getDatapointConfig(dp).getReceiveDelay();
+            if (receiveDelay > 0.0) {
+                try {
+                    receiveDelayedExecutor.start(acceptedEvents.get(i).getKey(), receiveDelay, () -> {
+                        updateDatapoints(Collections.singletonList(dp), Collections.singletonList(newValue));
                     });
+                } catch (HomematicClientException | IOException ex) {
+                    // ignore
+                }
+            } else {
+                Integer position = dp.isTrigger() || dp.isPressDatapoint() ? null : positions.get(dp);
+                if (position != null) {
+                    updatedValues.set(position, newValue);
+                    coalesced++;
+                } else {
+                    positions.put(dp, updatedDatapoints.size());
+                    updatedDatapoints.add(dp);
+                    updatedValues.add(newValue);
                 }
-            } catch (HomematicClientException | IOException ex) {
-                // ignore
             }
         }
+        if (!updatedDatapoints.isEmpty()) {
+            updateDatapoints(updatedDatapoints, updatedValues);
+        }
+
+        long dispatchTime = System.nanoTime() - startTime;
+        dispatchedBatches.incrementAndGet();
+        dispatchedEvents.addAndGet(events.size());
+        coalescedEvents.addAndGet(coalesced);
+        dispatchNanos.addAndGet(dispatchTime);
+        if (events.size() > 1) {
+            logger.debug("Dispatched {} events ({} coalesced) from gateway with id '{}' in {} us", events.size(),
+                    coalesced, id, TimeUnit.NANOSECONDS.toMicros(dispatchTime));
+        }
+    }
+
+    /**
+     * Sets the new values, handles the virtual datapoints and publishes all updated datapoints at once.
+     */
+    private void updateDatapoints(List<HmDatapoint> dps, List<Object> newValues) {
+        List<HmDatapoint> updatedDatapoints = new ArrayList<HmDatapoint>(dps.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < dps.size(); i++) {
+            HmDatapoint dp = dps.get(i);
+            dp.setValue(newValues.get(i));
+            dp.getChannel().setLastValuesUpdate(now);
+            updatedDatapoints.add(dp);
+
+            if (dp.isPressDatapoint() && MiscUtils.isTrueValue(dp.getValue())) {
+                disableDatapoint(dp, DEFAULT_DISABLE_DELAY);
+            }
+            for (VirtualDatapointHandler vdph : virtualDatapointHandlers) {
+                if (vdph.canHandleEvent(dp)) {
+                    vdph.handleEvent(this, dp);
+                    updatedDatapoints.add(vdph.getVirtualDatapoint(dp.getChannel()));
+                }
+            }
+        }
+        gatewayAdapter.onStatesUpdated(updatedDatapoints);
+    }
+
+    /**
+     * Returns the number of event batches dispatched since the gateway has been created.
+     */
+    public long getDispatchedBatchCount() {
+        return dispatchedBatches.get();
+    }
+
+    /**
+     * Returns the number of events received since the gateway has been created.
+     */
+    public long getDispatchedEventCount() {
+        return dispatchedEvents.get();
+    }
+
+    /**
+     * Returns the number of events which have been coalesced with a newer value of the same datapoint.
+     */
+    public long getCoalescedEventCount() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * Returns the average dispatch time of an event batch in microseconds.
+     */
+    public long getAverageDispatchMicros() {
+        long batches = dispatchedBatches.get();
+        return batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(dispatchNanos.get() / batches);
     }
 
     @Override
@@ -661,6 +945,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             for (String address : addresses) {
                 logger.debug("Device '{}' removed from gateway with id '{}'", address, id);
                 HmDevice device = devices.remove(address);
+                datapointIndex.remove(address);
                 if (device != null) {
                     gatewayAdapter.onDeviceDeleted(device);
                 }
@@ -716,6 +1001,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
         }
         devices.put(device.getAddress(), device);
+        datapointIndex.add(device);
         logger.debug("Loaded device '{}' ({}) with {} datapoints", device.getAddress(), device.getType(),
                 device.getDatapointCount());
 
@@ -812,4 +1098,20 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
 
     }
+
+    /**
+     * Shared state of a metadata load over all interfaces.
+     */
+    private static class MetadataLoadContext {
+        private final int deviceCount;
+        private final Map<String, Collection<HmDatapoint>> datapointsByChannelId = new ConcurrentHashMap<>();
+        private final Set<String> loadedDevices = new HashSet<String>();
+        private final AtomicInteger processedDevices = new AtomicInteger();
+        private final AtomicInteger storedChannels = new AtomicInteger();
+        private final AtomicInteger loadedChannels = new AtomicInteger();
+
+        public MetadataLoadContext(int deviceCount) {
+            this.deviceCount = deviceCount;
+        }
+    }
 }
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
+import java.util.List;
+
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmDatapointConfig;
 import org.openhab.binding.homematic.internal.model.HmDevice;
@@ -24,6 +26,11 @@ public interface HomematicGatewayAdapter {
      */
     public void onStateUpdated(HmDatapoint dp);
 
+    /**
+     * Called when multiple datapoints have been updated at once.
+     */
+    public void onStatesUpdated(List<HmDatapoint> dps);
+
     /**
      * Called when a new device has been detected on the gateway.
      */
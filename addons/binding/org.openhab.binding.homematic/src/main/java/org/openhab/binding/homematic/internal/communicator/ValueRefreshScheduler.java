@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refreshes the values of stale channels in small batches spread over time. A channel is stale, if no value has been
+ * received or loaded within the configured refresh interval. The refresh slows down if the duty cycle of the gateway
+ * is getting high and pauses with an increasing backoff if the duty cycle is critical.
+ *
+ * @author agent - Initial contribution
+ */
+public class ValueRefreshScheduler implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(ValueRefreshScheduler.class);
+
+    private static final long TICK_SECONDS = 10;
+    private static final int BATCH_SIZE = 5;
+    private static final int DUTY_CYCLE_REDUCED = 50;
+    private static final int DUTY_CYCLE_CRITICAL = 80;
+    private static final int MAX_BACKOFF_TICKS = 32;
+    private static final long DUTY_CYCLE_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final AbstractHomematicGateway gateway;
+    private final HomematicConfig config;
+    private ScheduledFuture<?> future;
+
+    private volatile Integer dutyCycle;
+    private long lastDutyCycleCheck;
+    private long lastRssiRefresh;
+    private int backoffTicks;
+    private int skipTicks;
+
+    private volatile long startTime;
+    private final AtomicLong refreshedChannels = new AtomicLong();
+    private final AtomicLong rpcCount = new AtomicLong();
+    private final AtomicLong rpcNanos = new AtomicLong();
+
+    public ValueRefreshScheduler(AbstractHomematicGateway gateway, HomematicConfig config) {
+        this.gateway = gateway;
+        this.config = config;
+    }
+
+    /**
+     * Starts the refresh, if a refresh interval is configured.
+     */
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        stop();
+        if (config.getValueRefreshInterval() > 0) {
+            startTime = System.currentTimeMillis();
+            lastRssiRefresh = startTime;
+            lastDutyCycleCheck = 0;
+            backoffTicks = 0;
+            skipTicks = 0;
+            future = scheduler.scheduleWithFixedDelay(this, TICK_SECONDS, TICK_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the refresh.
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(true);
+            future = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        if (skipTicks > 0) {
+            skipTicks--;
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (now - lastDutyCycleCheck >= DUTY_CYCLE_CHECK_INTERVAL) {
+                lastDutyCycleCheck = now;
+                long rpcStart = System.nanoTime();
+                dutyCycle = gateway.loadDutyCycle();
+                recordRpc(rpcStart);
+            }
+
+            Integer currentDutyCycle = dutyCycle;
+            if (currentDutyCycle != null && currentDutyCycle >= DUTY_CYCLE_CRITICAL) {
+                backoffTicks = backoffTicks == 0 ? 1 : Math.min(backoffTicks * 2, MAX_BACKOFF_TICKS);
+                skipTicks = backoffTicks;
+                // force a new duty cycle check after the pause
+                lastDutyCycleCheck = 0;
+                logger.debug("Duty cycle of gateway '{}' is {}%, pausing value refresh for {} seconds",
+                        gateway.getId(), currentDutyCycle, backoffTicks * TICK_SECONDS);
+                return;
+            }
+            backoffTicks = 0;
+
+            int batchSize = currentDutyCycle != null && currentDutyCycle >= DUTY_CYCLE_REDUCED ? 1 : BATCH_SIZE;
+            long maxAge = TimeUnit.SECONDS.toMillis(config.getValueRefreshInterval());
+            if (now - lastRssiRefresh >= maxAge && !config.getGatewayInfo().isHomegear()) {
+                lastRssiRefresh = now;
+                long rpcStart = System.nanoTime();
+                gateway.loadRssiValues();
+                recordRpc(rpcStart);
+                batchSize--;
+            }
+
+            for (HmChannel channel : getStaleChannels(now - maxAge, batchSize)) {
+                long rpcStart = System.nanoTime();
+                try {
+                    gateway.refreshChannelValues(channel);
+                    refreshedChannels.incrementAndGet();
+                } catch (IOException ex) {
+                    // mark the channel as attempted, so it does not block the other stale channels
+                    channel.setLastValuesUpdate(now);
+                    logger.debug("Value refresh of channel {} of device '{}' failed: {}", channel,
+                            channel.getDevice().getAddress(), ex.getMessage());
+                }
+                recordRpc(rpcStart);
+            }
+        } catch (IOException ex) {
+            logger.debug("Value refresh on gateway '{}' failed: {}", gateway.getId(), ex.getMessage());
+        } catch (RuntimeException ex) {
+            logger.warn("Value refresh on gateway '{}' failed: {}", gateway.getId(), ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns the channels with the oldest values, which have not been updated since the given time.
+     */
+    private List<HmChannel> getStaleChannels(long updatedBefore, int maxChannels) {
+        if (maxChannels <= 0) {
+            return Collections.emptyList();
+        }
+        List<HmChannel> staleChannels = new ArrayList<HmChannel>();
+        for (HmDevice device : gateway.getDeviceSnapshot()) {
+            if (!device.isGatewayExtras()) {
+                for (HmChannel channel : device.getChannels()) {
+                    // only refresh channels with values already loaded, channels of unused devices are never loaded
+                    if (channel.isInitialized() && channel.getLastValuesUpdate() < updatedBefore) {
+                        staleChannels.add(channel);
+                    }
+                }
+            }
+        }
+        if (staleChannels.size() > maxChannels) {
+            Collections.sort(staleChannels, Comparator.comparingLong(HmChannel::getLastValuesUpdate));
+            return staleChannels.subList(0, maxChannels);
+        }
+        return staleChannels;
+    }
+
+    private void recordRpc(long startNanos) {
+        rpcNanos.addAndGet(System.nanoTime() - startNanos);
+        rpcCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the last known duty cycle of the gateway in percent, null if unknown.
+     */
+    public Integer getDutyCycle() {
+        return dutyCycle;
+    }
+
+    /**
+     * Returns the average number of channels refreshed per minute since the refresh has been started.
+     */
+    public double getRefreshedPerMinute() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        if (startTime == 0 || elapsed <= 0) {
+            return 0.0;
+        }
+        return refreshedChannels.get() * (double) TimeUnit.MINUTES.toMillis(1) / elapsed;
+    }
+
+    /**
+     * Returns the average latency of the gateway requests of the refresh in milliseconds.
+     */
+    public double getAverageRpcLatencyMillis() {
+        long count = rpcCount.get();
+        return count == 0 ? 0.0 : rpcNanos.get() / 1000000.0 / count;
+    }
+}
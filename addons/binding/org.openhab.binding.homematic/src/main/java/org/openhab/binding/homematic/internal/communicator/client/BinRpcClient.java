@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.net.Socket;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcCodec;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
@@ -41,7 +42,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
 
     @Override
     protected RpcRequest<byte[]> createRpcRequest(String methodName) {
-        return new BinRpcMessage(methodName, config.getEncoding());
+        return new BinRpcMessage(methodName, BinRpcMessage.TYPE.REQUEST, BinRpcCodec.forEncoding(config.getEncoding()));
     }
 
     @Override
@@ -59,11 +60,16 @@ public class BinRpcClient extends RpcClient<byte[]> {
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        acquireConnectionPermit();
+        try {
+            return sendMessage(port, request, 0);
+        } finally {
+            releaseConnectionPermit();
+        }
     }
 
     /**
@@ -72,9 +78,21 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
         BinRpcMessage resp = null;
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            SocketInfo socketInfo = socketHandler.borrowSocket(port);
+            boolean completed = false;
+            try {
+                Socket socket = socketInfo.getSocket();
+                ((BinRpcMessage) request).writeTo(socket.getOutputStream());
+                resp = new BinRpcMessage(socket.getInputStream(), false,
+                        BinRpcCodec.forEncoding(config.getEncoding()));
+                completed = true;
+            } finally {
+                // a socket with a partially written request or unread response can't be reused
+                if (!completed) {
+                    socketHandler.closeSocket(socketInfo);
+                }
+            }
+            socketHandler.returnSocket(port, socketInfo);
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
@@ -13,6 +13,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -48,8 +51,57 @@ public abstract class RpcClient<T> {
 
     protected HomematicConfig config;
 
+    private final Semaphore connectionPermits;
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
     public RpcClient(HomematicConfig config) {
         this.config = config;
+        this.connectionPermits = new Semaphore(config.getConnectionPoolSize(), true);
+    }
+
+    /**
+     * Waits until a connection of the pool is available for the next request.
+     */
+    protected void acquireConnectionPermit() throws IOException {
+        long startTime = System.nanoTime();
+        try {
+            connectionPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a connection to the gateway", ex);
+        }
+        long waitTime = System.nanoTime() - startTime;
+        waitNanos.addAndGet(waitTime);
+        requestCount.incrementAndGet();
+        int inFlight = inFlightCount.incrementAndGet();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Waited {} ms for a connection, {} request(s) in flight", waitTime / 1000000, inFlight);
+        }
+    }
+
+    /**
+     * Releases the connection for the next request.
+     */
+    protected void releaseConnectionPermit() {
+        inFlightCount.decrementAndGet();
+        connectionPermits.release();
+    }
+
+    /**
+     * Returns the number of requests currently sent to the gateway.
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds a request waited for a pooled connection.
+     */
+    public double getAverageConnectionWaitMillis() {
+        long requests = requestCount.get();
+        return requests == 0 ? 0.0 : waitNanos.get() / 1000000.0 / requests;
     }
 
     /**
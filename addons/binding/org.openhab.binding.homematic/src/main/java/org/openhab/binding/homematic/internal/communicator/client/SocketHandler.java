@@ -11,22 +11,25 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Socket pool of a gateway, holds the idle sockets per port. The number of sockets in use is limited by the
+ * connection permits of the {@link RpcClient}.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    private Map<Integer, Deque<SocketInfo>> idleSocketsPerPort = new ConcurrentHashMap<Integer, Deque<SocketInfo>>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -34,53 +37,86 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Returns an idle socket for the given port or creates a new one. The socket is exclusively used by the caller
+     * until it is returned with {@link #returnSocket(int, SocketInfo)} or closed with {@link #closeSocket(SocketInfo)}.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
-
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+    public SocketInfo borrowSocket(int port) throws IOException {
+        Deque<SocketInfo> idleSockets = getIdleSockets(port);
+        SocketInfo socketInfo;
+        while ((socketInfo = idleSockets.pollFirst()) != null) {
+            if (isHealthy(socketInfo)) {
+                logger.trace("Returning socket for port {}", port);
+                return socketInfo;
             }
-            logger.trace("Returning socket for port {}", port);
+            logger.debug("Discarding socket on port {}, max alive time reached or connection closed", port);
+            closeSocket(socketInfo);
         }
-        return socketInfo.getSocket();
+
+        logger.trace("Creating new socket for port {}", port);
+        Socket socket = new Socket();
+        socket.setSoTimeout(config.getTimeout() * 1000);
+        socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+        return new SocketInfo(socket);
+    }
+
+    /**
+     * Puts a socket back into the pool after a successful request.
+     */
+    public void returnSocket(int port, SocketInfo socketInfo) {
+        getIdleSockets(port).offerFirst(socketInfo);
+    }
+
+    /**
+     * Closes a socket which is not usable anymore.
+     */
+    public void closeSocket(SocketInfo socketInfo) {
+        closeSilent(socketInfo.getSocket());
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Removes all idle sockets for the given port from the pool.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        Deque<SocketInfo> idleSockets = idleSocketsPerPort.get(port);
+        if (idleSockets != null) {
+            SocketInfo socketInfo;
+            while ((socketInfo = idleSockets.pollFirst()) != null) {
+                logger.trace("Closing Socket on port {}", port);
+                closeSocket(socketInfo);
+            }
         }
     }
 
     /**
-     * Removes all cached sockets.
+     * Removes all pooled sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
+        for (Integer port : idleSocketsPerPort.keySet()) {
+            removeSocket(port);
+        }
+    }
+
+    private Deque<SocketInfo> getIdleSockets(int port) {
+        Deque<SocketInfo> idleSockets = idleSocketsPerPort.get(port);
+        if (idleSockets == null) {
+            idleSockets = new ConcurrentLinkedDeque<SocketInfo>();
+            Deque<SocketInfo> existing = idleSocketsPerPort.putIfAbsent(port, idleSockets);
+            if (existing != null) {
+                idleSockets = existing;
             }
         }
+        return idleSockets;
+    }
+
+    /**
+     * Returns true, if the socket is connected and the max alive time is not reached.
+     */
+    private boolean isHealthy(SocketInfo socketInfo) {
+        Socket socket = socketInfo.getSocket();
+        boolean isMaxAliveReached = System.currentTimeMillis()
+                - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+        return !isMaxAliveReached && socket.isConnected() && !socket.isClosed() && !socket.isInputShutdown()
+                && !socket.isOutputShutdown();
     }
 
     /**
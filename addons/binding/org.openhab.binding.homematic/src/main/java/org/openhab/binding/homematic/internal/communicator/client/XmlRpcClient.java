@@ -10,11 +10,13 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.IOUtils;
 import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
 import org.eclipse.jetty.http.HttpHeader;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
@@ -37,6 +39,7 @@ public class XmlRpcClient extends RpcClient<String> {
         super(config);
         httpClient = new HttpClient();
         httpClient.setConnectTimeout(config.getTimeout() * 1000L);
+        httpClient.setMaxConnectionsPerDestination(config.getConnectionPoolSize());
 
         try {
             httpClient.start();
@@ -66,18 +69,22 @@ public class XmlRpcClient extends RpcClient<String> {
     }
 
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client XmlRpcRequest (port {}):\n{}", port, request);
         }
-        return sendMessage(port, request, 0);
+        acquireConnectionPermit();
+        try {
+            return sendMessage(port, request, 0);
+        } finally {
+            releaseConnectionPermit();
+        }
     }
 
     /**
      * Sends the message, retries if there was an error.
      */
-    private synchronized Object[] sendMessage(int port, RpcRequest<String> request, int rpcRetryCounter)
-            throws IOException {
+    private Object[] sendMessage(int port, RpcRequest<String> request, int rpcRetryCounter) throws IOException {
         try {
             BytesContentProvider content = new BytesContentProvider(
                     request.createMessage().getBytes(config.getEncoding()));
@@ -85,17 +92,24 @@ public class XmlRpcClient extends RpcClient<String> {
             if (port == config.getGroupPort()) {
                 url += "/groups";
             }
-            ContentResponse response = httpClient.POST(url).content(content)
-                    .timeout(config.getTimeout(), TimeUnit.SECONDS)
-                    .header(HttpHeader.CONTENT_TYPE, "text/xml;charset=" + config.getEncoding()).send();
+            InputStreamResponseListener listener = new InputStreamResponseListener();
+            httpClient.POST(url).content(content).timeout(config.getTimeout(), TimeUnit.SECONDS)
+                    .header(HttpHeader.CONTENT_TYPE, "text/xml;charset=" + config.getEncoding()).send(listener);
+            listener.get(config.getTimeout(), TimeUnit.SECONDS);
 
-            String result = new String(response.getContent(), config.getEncoding());
-            if (logger.isTraceEnabled()) {
-                logger.trace("Client XmlRpcResponse (port {}):\n{}", port, result);
+            Object[] data;
+            try (InputStream is = listener.getInputStream()) {
+                if (logger.isTraceEnabled()) {
+                    byte[] result = IOUtils.toByteArray(is);
+                    logger.trace("Client XmlRpcResponse (port {}):\n{}", port,
+                            new String(result, config.getEncoding()));
+                    data = new XmlRpcResponse(new ByteArrayInputStream(result), config.getEncoding())
+                            .getResponseData();
+                } else {
+                    // parse the response while it is received, the raw response is never held completely
+                    data = new XmlRpcResponse(is, config.getEncoding()).getResponseData();
+                }
             }
-
-            Object[] data = new XmlRpcResponse(new ByteArrayInputStream(result.getBytes(config.getEncoding())),
-                    config.getEncoding()).getResponseData();
             return new RpcResponseParser(request).parse(data);
         } catch (UnknownRpcFailureException | UnknownParameterSetException ex) {
             throw ex;
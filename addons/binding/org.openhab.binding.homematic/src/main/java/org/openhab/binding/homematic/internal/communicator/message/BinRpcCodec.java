@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming BIN-RPC codec based on {@link ByteBuffer}s. Frames are read into a per thread buffer which is reused for
+ * every following frame, numbers are decoded directly from the buffer and strings are decoded with a cached
+ * {@link CharsetDecoder}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcCodec {
+    public static final int HEADER_LENGTH = 8;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    // far above the largest device lists of a gateway, protects against allocating garbage lengths
+    private static final int MAX_DATA_SIZE = 32 * 1024 * 1024;
+    private static final double DOUBLE_SCALE = 1000000d;
+
+    private static final Map<String, BinRpcCodec> CODECS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ByteBuffer> FRAME_BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        }
+    };
+
+    private final Charset charset;
+    private final ThreadLocal<CharsetDecoder> decoder;
+    private final ThreadLocal<CharBuffer> charBuffer = new ThreadLocal<CharBuffer>() {
+        @Override
+        protected CharBuffer initialValue() {
+            return CharBuffer.allocate(256);
+        }
+    };
+
+    /**
+     * Returns the shared codec for the given encoding.
+     */
+    public static BinRpcCodec forEncoding(String encoding) {
+        BinRpcCodec codec = CODECS.get(encoding);
+        if (codec == null) {
+            codec = new BinRpcCodec(Charset.forName(encoding));
+            BinRpcCodec existing = CODECS.putIfAbsent(encoding, codec);
+            if (existing != null) {
+                codec = existing;
+            }
+        }
+        return codec;
+    }
+
+    private BinRpcCodec(Charset charset) {
+        this.charset = charset;
+        this.decoder = new ThreadLocal<CharsetDecoder>() {
+            @Override
+            protected CharsetDecoder initialValue() {
+                return charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+        };
+    }
+
+    /**
+     * Returns the charset of this codec.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Reads a complete BIN-RPC frame from the InputStream. The returned buffer is owned by the calling thread and is
+     * reused by the next call, therefore the frame must be decoded before another frame is read.
+     */
+    public ByteBuffer readFrame(InputStream is) throws IOException {
+        ByteBuffer buffer = acquireBuffer(HEADER_LENGTH);
+        byte[] data = buffer.array();
+        int length = readFully(is, data, 0, 4);
+        if (length != 4) {
+            throw new EOFException("Only " + length + " bytes received reading signature");
+        }
+        validateSignature(data[0], data[1], data[2]);
+        length = readFully(is, data, 4, 4);
+        if (length != 4) {
+            throw new EOFException("Only " + length + " bytes received reading message length");
+        }
+        int datasize = buffer.getInt(4);
+        validateDataSize(datasize);
+
+        int frameLength = HEADER_LENGTH + datasize;
+        if (frameLength > buffer.capacity()) {
+            ByteBuffer larger = acquireBuffer(frameLength);
+            larger.put(data, 0, HEADER_LENGTH);
+            buffer = larger;
+            data = buffer.array();
+        }
+        length = readFully(is, data, HEADER_LENGTH, datasize);
+        if (length != datasize) {
+            throw new EOFException("Only " + length + " of " + datasize + " bytes received reading message");
+        }
+        buffer.position(0);
+        buffer.limit(frameLength);
+        return buffer;
+    }
+
+    /**
+     * Validates the signature at the start of the given frame.
+     */
+    public void validateSignature(ByteBuffer frame) throws UnsupportedEncodingException {
+        int start = frame.position();
+        validateSignature(frame.get(start), frame.get(start + 1), frame.get(start + 2));
+    }
+
+    private void validateSignature(byte b, byte i, byte n) throws UnsupportedEncodingException {
+        if (b != 'B' || i != 'i' || n != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+    }
+
+    /**
+     * Validates the data size of a frame header before a buffer for the frame is allocated.
+     */
+    public static void validateDataSize(int datasize) throws IOException {
+        if (datasize < 0 || datasize > MAX_DATA_SIZE) {
+            throw new IOException("Invalid BIN-RPC message length " + datasize);
+        }
+    }
+
+    /**
+     * Decodes a string (int length followed by the encoded bytes) at the current position of the buffer.
+     */
+    public String readString(ByteBuffer buffer) throws IOException {
+        int len = buffer.getInt();
+        if (len < 0 || len > buffer.remaining()) {
+            throw new EOFException("String length " + len + " exceeds remaining " + buffer.remaining() + " bytes");
+        }
+        if (len == 0) {
+            return "";
+        }
+
+        CharsetDecoder dec = decoder.get();
+        CharBuffer chars = charBuffer.get();
+        int maxChars = (int) Math.ceil(len * (double) dec.maxCharsPerByte());
+        if (chars.capacity() < maxChars) {
+            chars = CharBuffer.allocate(Math.max(maxChars, chars.capacity() * 2));
+            charBuffer.set(chars);
+        }
+        chars.clear();
+
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + len);
+        dec.reset();
+        dec.decode(buffer, chars, true);
+        dec.flush(chars);
+        buffer.limit(limit);
+        chars.flip();
+        return chars.toString();
+    }
+
+    /**
+     * Decodes all values from the current position to the limit of the buffer.
+     */
+    public Object[] readValues(ByteBuffer buffer) throws IOException {
+        Object[] values = new Object[8];
+        int count = 0;
+        while (buffer.hasRemaining()) {
+            if (count == values.length) {
+                Object[] newValues = new Object[count * 2];
+                System.arraycopy(values, 0, newValues, 0, count);
+                values = newValues;
+            }
+            values[count++] = readValue(buffer);
+        }
+        Object[] result = new Object[count];
+        System.arraycopy(values, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Decodes a single value at the current position of the buffer.
+     */
+    public Object readValue(ByteBuffer buffer) throws IOException {
+        int type = buffer.getInt();
+        switch (type) {
+            case 1:
+                return Integer.valueOf(buffer.getInt());
+            case 2:
+                return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
+            case 3:
+                return readString(buffer);
+            case 4:
+                int mantissa = buffer.getInt();
+                int exponent = buffer.getInt();
+                return roundHalfDown(Math.scalb((double) mantissa, exponent - 30));
+            case 5:
+                return new Date(buffer.getInt() * 1000L);
+            case 0x100:
+                // Array
+                int numElements = buffer.getInt();
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readValue(buffer);
+                }
+                return array;
+            case 0x101:
+                // Struct
+                numElements = buffer.getInt();
+                Map<String, Object> struct = new TreeMap<String, Object>();
+                while (numElements-- > 0) {
+                    String name = readString(buffer);
+                    struct.put(name, readValue(buffer));
+                }
+                return struct;
+            default:
+                throw new IOException("Unknown data type " + type + " at position " + (buffer.position() - 4));
+        }
+    }
+
+    /**
+     * Rounds the value to six decimal places, ties are rounded towards zero.
+     */
+    private static double roundHalfDown(double value) {
+        double scaled = Math.abs(value) * DOUBLE_SCALE;
+        double floor = Math.floor(scaled);
+        double rounded = scaled - floor > 0.5 ? floor + 1 : floor;
+        return Math.copySign(rounded / DOUBLE_SCALE, value);
+    }
+
+    /**
+     * Returns the pooled buffer of the current thread, enlarges it if the capacity is too small.
+     */
+    private static ByteBuffer acquireBuffer(int minCapacity) {
+        ByteBuffer buffer = FRAME_BUFFER.get();
+        if (buffer.capacity() < minCapacity) {
+            int capacity = buffer.capacity();
+            while (capacity < minCapacity) {
+                capacity *= 2;
+            }
+            buffer = ByteBuffer.allocate(capacity);
+            if (capacity <= MAX_POOLED_BUFFER_SIZE) {
+                FRAME_BUFFER.set(buffer);
+            }
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Reads until len bytes are read or the end of the stream is reached, returns the number of bytes read.
+     */
+    private static int readFully(InputStream is, byte[] data, int offset, int len) throws IOException {
+        int read = 0;
+        while (read < len) {
+            int count = is.read(data, offset + read, len - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        return read;
+    }
+}
@@ -11,24 +11,17 @@ package org.openhab.binding.homematic.internal.communicator.message;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.text.ParseException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang.ArrayUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
@@ -36,7 +29,7 @@ import org.slf4j.LoggerFactory;
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
-    private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
+    private static final byte BIN_SIGNATURE[] = { 'B', 'i', 'n', 0 };
 
     public enum TYPE {
         REQUEST,
@@ -44,13 +37,13 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private Object[] messageData;
-    private byte binRpcData[];
-    private int offset;
+    private ByteBuffer binRpcData;
 
     private String methodName;
     private TYPE type;
     private int args;
-    private String encoding;
+    private int argsPosition;
+    private BinRpcCodec codec;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -60,9 +53,16 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Creates a new request with the specified methodName.
      */
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
+        this(methodName, type, BinRpcCodec.forEncoding(encoding));
+    }
+
+    /**
+     * Creates a new request with the specified methodName and codec.
+     */
+    public BinRpcMessage(String methodName, TYPE type, BinRpcCodec codec) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        this.codec = codec;
         createHeader();
     }
 
@@ -70,77 +70,71 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading signature");
-        }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading message length");
-        }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte[] message = ArrayUtils.addAll(sig, IOUtils.toByteArray(is, datasize));
-        decodeMessage(message, methodHeader);
+        this(is, methodHeader, BinRpcCodec.forEncoding(encoding));
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
-        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
-            throw new UnsupportedEncodingException("No BinX signature");
-        }
+    /**
+     * Decodes a BIN-RPC message from the given InputStream with the codec.
+     */
+    public BinRpcMessage(InputStream is, boolean methodHeader, BinRpcCodec codec) throws IOException {
+        this.codec = codec;
+        decodeMessage(codec.readFrame(is), methodHeader);
     }
 
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
-    public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
-            throw new EOFException("Only " + message.length + " bytes received");
-        }
-        validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+    public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException {
+        this(ByteBuffer.wrap(message), methodHeader, BinRpcCodec.forEncoding(encoding));
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
-
-        offset = 8;
+    /**
+     * Decodes a BIN-RPC message from the position to the limit of the given buffer. The buffer is not retained.
+     */
+    public BinRpcMessage(ByteBuffer frame, boolean methodHeader, BinRpcCodec codec) throws IOException {
+        this.codec = codec;
+        if (frame.remaining() < BinRpcCodec.HEADER_LENGTH) {
+            throw new EOFException("Only " + frame.remaining() + " bytes received");
+        }
+        codec.validateSignature(frame);
+        decodeMessage(frame, methodHeader);
+    }
 
+    private void decodeMessage(ByteBuffer frame, boolean methodHeader) throws IOException {
+        ByteBuffer message = frame.slice();
+        message.position(BinRpcCodec.HEADER_LENGTH);
         if (methodHeader) {
-            methodName = readString();
-            readInt();
+            methodName = codec.readString(message);
+            message.getInt();
         }
-        generateResponseData();
+        messageData = codec.readValues(message);
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+        binRpcData.put(3, type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
     }
 
     private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<Object>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+        ByteBuffer message = (ByteBuffer) binRpcData.duplicate().flip();
+        message.position(BinRpcCodec.HEADER_LENGTH);
+        if (methodName != null) {
+            codec.readString(message);
+            message.getInt();
         }
-        messageData = values.toArray();
-        values.clear();
+        messageData = codec.readValues(message);
     }
 
     private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
+        binRpcData = ByteBuffer.allocate(256);
+        binRpcData.put(BIN_SIGNATURE);
         setType(type);
         addInt(0); // placeholder content length
         if (methodName != null) {
-            addInt(methodName.length());
             addString(methodName);
+            argsPosition = binRpcData.position();
             addInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        binRpcData.putInt(4, binRpcData.position() - 8);
     }
 
     /**
@@ -149,10 +143,10 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public void addArg(Object argument) {
         addObject(argument);
-        setInt(4, offset - 8);
+        binRpcData.putInt(4, binRpcData.position() - 8);
 
         if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
+            binRpcData.putInt(argsPosition, ++args);
         }
     }
 
@@ -167,14 +161,14 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
-        return binRpcData;
+        return Arrays.copyOf(binRpcData.array(), binRpcData.position());
     }
 
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+    /**
+     * Writes the encoded message to the OutputStream without copying it.
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        os.write(binRpcData.array(), 0, binRpcData.position());
     }
 
     @Override
@@ -182,83 +176,27 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         return messageData;
     }
 
-    // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
-    }
-
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
-    }
-
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
-        switch (type) {
-            case 1:
-                return new Integer(readInt());
-            case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
-            case 3:
-                return readString();
-            case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
-                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
-                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
-            case 5:
-                return new Date(readInt() * 1000);
-            case 0x100:
-                // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<Object>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
-                }
-                return array.toArray();
-            case 0x101:
-                // Struct
-                numElements = readInt();
-                Map<String, Object> struct = new TreeMap<String, Object>();
-                while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
-                }
-                return struct;
-
-            default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
-                }
-                throw new IOException("Unknown data type " + type);
+    private void ensureCapacity(int length) {
+        if (binRpcData.remaining() < length) {
+            int capacity = binRpcData.capacity() * 2;
+            while (capacity - binRpcData.position() < length) {
+                capacity *= 2;
+            }
+            ByteBuffer newData = ByteBuffer.allocate(capacity);
+            binRpcData.flip();
+            newData.put(binRpcData);
+            binRpcData = newData;
         }
     }
 
-    private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
-    }
-
     private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
-        }
-        binRpcData[offset++] = b;
+        ensureCapacity(1);
+        binRpcData.put(b);
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        binRpcData.putInt(value);
     }
 
     private void addDouble(double value) {
@@ -283,16 +221,14 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
+    /**
+     * Adds the encoded string with its leading byte length.
+     */
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte sd[] = string.getBytes(codec.getCharset());
+        addInt(sd.length);
+        ensureCapacity(sd.length);
+        binRpcData.put(sd);
     }
 
     private void addList(Collection<?> collection) {
@@ -304,9 +240,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void addObject(Object object) {
         if (object.getClass() == String.class) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            addString((String) object);
         } else if (object.getClass() == Boolean.class) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
@@ -341,7 +275,6 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
                     addString(key);
                     addList(Collections.singleton(entry.getValue()));
                 }
@@ -356,8 +289,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
+            if (binRpcData != null) {
+                generateResponseData();
+            }
             return RpcUtils.dumpRpcMessage(methodName, messageData);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
@@ -133,7 +133,11 @@ public class XmlRpcRequest implements RpcRequest<String> {
             } else if (clazz == Boolean.class) {
                 tag("boolean", ((Boolean) value).booleanValue() ? "1" : "0");
             } else if (clazz == Date.class) {
-                tag("dateTime.iso8601", xmlRpcDateFormat.format(((Date) value)));
+                String date;
+                synchronized (xmlRpcDateFormat) {
+                    date = xmlRpcDateFormat.format((Date) value);
+                }
+                tag("dateTime.iso8601", date);
             } else if (value instanceof Calendar) {
                 generateValue(((Calendar) value).getTime());
             } else if (value instanceof byte[]) {
@@ -8,44 +8,57 @@
  */
 package org.openhab.binding.homematic.internal.communicator.message;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
- * Decodes a XML-RPC message from the Homematic server.
+ * Decodes a XML-RPC message from the Homematic server. The message is streamed with StAX and every value is created
+ * directly in its final form, so no intermediate structures are held while large responses (e.g. listDevices) are
+ * decoded.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class XmlRpcResponse implements RpcResponse {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
     private String methodName;
     private Object[] responseData;
+    private Map<String, String> memberNames = new HashMap<String, String>();
 
     /**
      * Decodes a XML-RPC message from the given InputStream.
      */
-    public XmlRpcResponse(InputStream is, String encoding)
-            throws SAXException, ParserConfigurationException, IOException {
-        SAXParserFactory factory = SAXParserFactory.newInstance();
-        SAXParser saxParser = factory.newSAXParser();
-        InputSource inputSource = new InputSource(is);
-        inputSource.setEncoding(encoding);
-        saxParser.parse(inputSource, new XmlRpcHandler());
+    public XmlRpcResponse(InputStream is, String encoding) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is, encoding);
+        try {
+            List<Object> params = new ArrayList<Object>();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if ("value".equalsIgnoreCase(tag)) {
+                        params.add(readValue(reader));
+                    } else if ("methodName".equalsIgnoreCase(tag)) {
+                        methodName = reader.getElementText();
+                    } else if (!isEnvelopeTag(tag)) {
+                        throw new XMLStreamException("Unknown XML-RPC tag: " + tag, reader.getLocation());
+                    }
+                }
+            }
+            responseData = params.toArray();
+        } finally {
+            reader.close();
+            memberNames = null;
+        }
     }
 
     @Override
@@ -64,109 +77,151 @@ public class XmlRpcResponse implements RpcResponse {
     }
 
     /**
-     * SAX parser implementation to decode XML-RPC.
-     *
-     * @author Gerhard Riegler
-     * @since 1.9.0
+     * Reads the content of a value tag, a value without a type tag is a string.
      */
-    private class XmlRpcHandler extends DefaultHandler {
-        private List<Object> result = new ArrayList<Object>();
-        private LinkedList<List<Object>> currentDataObject = new LinkedList<List<Object>>();
-        private StringBuilder tagValue;
-        private boolean isValueTag;
-
-        @Override
-        public void startDocument() throws SAXException {
-            currentDataObject.addLast(new ArrayList<Object>());
+    private Object readValue(XMLStreamReader reader) throws XMLStreamException {
+        Object value = null;
+        StringBuilder text = null;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    value = readTypedValue(reader, reader.getLocalName());
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (value == null) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (value != null) {
+                        return value;
+                    }
+                    return text == null ? "" : text.toString();
+                default:
+                    break;
+            }
         }
+        throw new XMLStreamException("Unexpected end of XML-RPC value", reader.getLocation());
+    }
 
-        @Override
-        public void endDocument() throws SAXException {
-            result.addAll(currentDataObject.removeLast());
-            responseData = result.toArray();
+    /**
+     * Reads a value enclosed by the given type tag.
+     */
+    private Object readTypedValue(XMLStreamReader reader, String tag) throws XMLStreamException {
+        switch (tag) {
+            case "string":
+                return reader.getElementText();
+            case "int":
+            case "i4":
+                return Integer.valueOf(reader.getElementText());
+            case "boolean":
+                return "1".equals(reader.getElementText()) ? Boolean.TRUE : Boolean.FALSE;
+            case "double":
+                return Double.valueOf(reader.getElementText());
+            case "base64":
+                return Base64.getDecoder().decode(reader.getElementText());
+            case "datetime.iso8601":
+                String date = reader.getElementText();
+                try {
+                    synchronized (XmlRpcRequest.xmlRpcDateFormat) {
+                        return XmlRpcRequest.xmlRpcDateFormat.parse(date);
+                    }
+                } catch (ParseException ex) {
+                    throw new XMLStreamException(ex.getMessage(), reader.getLocation(), ex);
+                }
+            case "array":
+                return readArray(reader);
+            case "struct":
+                return readStruct(reader);
+            default:
+                String lowerCaseTag = tag.toLowerCase();
+                if (!lowerCaseTag.equals(tag)) {
+                    return readTypedValue(reader, lowerCaseTag);
+                }
+                throw new XMLStreamException("Unknown XML-RPC tag: " + tag, reader.getLocation());
         }
+    }
 
-        @Override
-        public void startElement(String uri, String localName, String qName, Attributes attributes)
-                throws SAXException {
-            String tag = qName.toLowerCase();
-            if (tag.equals("array") || tag.equals("struct")) {
-                currentDataObject.addLast(new ArrayList<Object>());
+    /**
+     * Reads all values of an array up to the end tag of the array.
+     */
+    private Object[] readArray(XMLStreamReader reader) throws XMLStreamException {
+        List<Object> values = new ArrayList<Object>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String tag = reader.getLocalName();
+                if ("value".equalsIgnoreCase(tag)) {
+                    values.add(readValue(reader));
+                } else if (!"data".equalsIgnoreCase(tag)) {
+                    throw new XMLStreamException("Unknown XML-RPC tag in array: " + tag, reader.getLocation());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "array".equalsIgnoreCase(reader.getLocalName())) {
+                return values.toArray();
             }
-            isValueTag = tag.equals("value");
-            tagValue = new StringBuilder();
         }
+        throw new XMLStreamException("Unexpected end of XML-RPC array", reader.getLocation());
+    }
 
-        @Override
-        public void endElement(String uri, String localName, String qName) throws SAXException {
-            String currentTag = qName.toLowerCase();
-            String currentValue = tagValue.toString();
-            List<Object> data = currentDataObject.peekLast();
-
-            switch (currentTag) {
-                case "boolean":
-                    data.add("1".equals(currentValue) ? Boolean.TRUE : Boolean.FALSE);
-                    break;
-                case "int":
-                case "i4":
-                    data.add(new Integer(currentValue));
-                    break;
-                case "double":
-                    data.add(new Double(currentValue));
-                    break;
-                case "string":
-                case "name":
-                    data.add(currentValue);
-                    break;
-                case "value":
-                    if (isValueTag) {
-                        data.add(currentValue);
-                        isValueTag = false;
-                    }
-                    break;
-                case "array":
-                    List<Object> arrayData = currentDataObject.removeLast();
-                    currentDataObject.peekLast().add(arrayData.toArray());
-                    break;
-                case "struct":
-                    List<Object> mapData = currentDataObject.removeLast();
-                    Map<Object, Object> resultMap = new HashMap<Object, Object>();
-
-                    for (int i = 0; i < mapData.size(); i += 2) {
-                        resultMap.put(mapData.get(i), mapData.get(i + 1));
-                    }
-                    currentDataObject.peekLast().add(resultMap);
-                    break;
-                case "base64":
-                    data.add(Base64.getDecoder().decode(currentValue));
-                    break;
-                case "datetime.iso8601":
-                    try {
-                        data.add(XmlRpcRequest.xmlRpcDateFormat.parse(currentValue));
-                    } catch (ParseException ex) {
-                        throw new SAXException(ex.getMessage(), ex);
-                    }
-                    break;
-                case "methodname":
-                    methodName = currentValue;
-                    break;
-                case "params":
-                case "param":
-                case "methodcall":
-                case "methodresponse":
-                case "member":
-                case "data":
-                case "fault":
-                    break;
-                default:
-                    throw new SAXException("Unknown XML-RPC tag: " + currentTag);
+    /**
+     * Reads all members of a struct up to the end tag of the struct.
+     */
+    private Map<String, Object> readStruct(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, Object> struct = new HashMap<String, Object>();
+        String name = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String tag = reader.getLocalName();
+                if ("name".equalsIgnoreCase(tag)) {
+                    name = getMemberName(reader.getElementText());
+                } else if ("value".equalsIgnoreCase(tag)) {
+                    struct.put(name, readValue(reader));
+                } else if (!"member".equalsIgnoreCase(tag)) {
+                    throw new XMLStreamException("Unknown XML-RPC tag in struct: " + tag, reader.getLocation());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "struct".equalsIgnoreCase(reader.getLocalName())) {
+                return struct;
             }
         }
+        throw new XMLStreamException("Unexpected end of XML-RPC struct", reader.getLocation());
+    }
 
-        @Override
-        public void characters(char[] ch, int start, int length) throws SAXException {
-            tagValue.append(new String(ch, start, length));
+    /**
+     * Returns a shared instance of the member name, the same names are repeated in every struct of a response.
+     */
+    private String getMemberName(String name) {
+        String memberName = memberNames.get(name);
+        if (memberName == null) {
+            memberNames.put(name, name);
+            memberName = name;
         }
+        return memberName;
+    }
+
+    private static boolean isEnvelopeTag(String tag) {
+        switch (tag.toLowerCase()) {
+            case "methodcall":
+            case "methodresponse":
+            case "params":
+            case "param":
+            case "fault":
+                return true;
+            default:
+                return false;
+        }
+    }
 
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
     }
 }
@@ -12,7 +12,7 @@ import java.io.IOException;
 import java.util.Map;
 
 /**
- * Parses a listBidcosInterfaces message and extracts the type and gateway address.
+ * Parses a listBidcosInterfaces message and extracts the type, gateway address and duty cycle.
  *
  * @author Gerhard Riegler - Initial contribution
  */
@@ -20,6 +20,7 @@ public class ListBidcosInterfacesParser extends CommonRpcParser<Object[], ListBi
     private String type;
     private String gatewayAddress;
     private String firmware;
+    private Integer dutyCycle;
 
     @SuppressWarnings("unchecked")
     @Override
@@ -34,6 +35,7 @@ public class ListBidcosInterfacesParser extends CommonRpcParser<Object[], ListBi
                     type = toString(mapMessage.get("TYPE"));
                     firmware = toString(mapMessage.get("FIRMWARE_VERSION"));
                     gatewayAddress = toString(mapMessage.get("ADDRESS"));
+                    dutyCycle = toInteger(mapMessage.get("DUTY_CYCLE"));
                 }
             }
         }
@@ -60,4 +62,11 @@ public class ListBidcosInterfacesParser extends CommonRpcParser<Object[], ListBi
     public String getFirmware() {
         return firmware;
     }
+
+    /**
+     * Returns the duty cycle of the default interface in percent, null if not supported by the gateway.
+     */
+    public Integer getDutyCycle() {
+        return dutyCycle;
+    }
 }
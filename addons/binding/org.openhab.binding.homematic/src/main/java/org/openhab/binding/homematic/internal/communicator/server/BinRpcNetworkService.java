@@ -15,6 +15,7 @@ import java.net.Socket;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcCodec;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 
@@ -29,7 +30,7 @@ public class BinRpcNetworkService implements Runnable {
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
-    private static final String RPC_POOL_NAME = "homematicRpc";
+    static final String RPC_POOL_NAME = "homematicRpc";
     private ServerSocket serverSocket;
     private boolean accept = true;
     private HomematicConfig config;
@@ -45,7 +46,14 @@ public class BinRpcNetworkService implements Runnable {
         serverSocket.setReuseAddress(true);
         serverSocket.bind(new InetSocketAddress(config.getBinCallbackPort()));
 
-        this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
+        this.rpcResponseHandler = createRpcResponseHandler(listener, config);
+    }
+
+    /**
+     * Creates the handler for the BIN-RPC method calls of the Homematic gateway.
+     */
+    static RpcResponseHandler<byte[]> createRpcResponseHandler(RpcEventListener listener, HomematicConfig config) {
+        return new RpcResponseHandler<byte[]>(listener) {
 
             @Override
             protected byte[] getEmptyStringResult() {
@@ -64,7 +72,8 @@ public class BinRpcNetworkService implements Runnable {
 
             @Override
             protected RpcRequest<byte[]> createRpcRequest() {
-                return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, config.getEncoding());
+                return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE,
+                        BinRpcCodec.forEncoding(config.getEncoding()));
             }
         };
     }
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcCodec;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives the messages from all Homematic gateway connections on a single NIO selector. Frames are decoded
+ * incrementally as data arrives, all messages completed within one select round are handled as one batch in the RPC
+ * thread pool and the responses are written back by the selector thread.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcNioNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNioNetworkService.class);
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean accept = true;
+    private HomematicConfig config;
+    private RpcResponseHandler<byte[]> rpcResponseHandler;
+    private Queue<Connection> pendingResponses = new ConcurrentLinkedQueue<Connection>();
+
+    /**
+     * Creates the server channel for listening to events from the Homematic gateway.
+     */
+    public BinRpcNioNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
+        this.config = config;
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(new InetSocketAddress(config.getBinCallbackPort()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.rpcResponseHandler = BinRpcNetworkService.createRpcResponseHandler(listener, config);
+    }
+
+    /**
+     * Multiplexes all connections until the service is shut down.
+     */
+    @Override
+    public void run() {
+        try {
+            while (accept) {
+                selector.select();
+                registerPendingResponses();
+
+                List<Connection> batch = new ArrayList<Connection>();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            acceptConnection();
+                        } else if (key.isReadable()) {
+                            Connection connection = (Connection) key.attachment();
+                            if (connection.read()) {
+                                key.interestOps(0);
+                                batch.add(connection);
+                            }
+                        } else if (key.isWritable()) {
+                            ((Connection) key.attachment()).write();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+                        closeSilent(key);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    ThreadPoolManager.getPool(BinRpcNetworkService.RPC_POOL_NAME).execute(() -> handleBatch(batch));
+                }
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (accept) {
+                logger.error("BIN-RPC selector failed: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Accepts a new connection from the Homematic gateway.
+     */
+    private void acceptConnection() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(key));
+        }
+    }
+
+    /**
+     * Handles all method calls of a batch in order and hands the responses to the selector thread.
+     */
+    private void handleBatch(List<Connection> batch) {
+        for (Connection connection : batch) {
+            try {
+                logger.trace("Event BinRpcMessage: {}", connection.message);
+                byte[] returnValue = rpcResponseHandler.handleMethodCall(connection.message.getMethodName(),
+                        connection.message.getResponseData());
+                connection.response = returnValue == null ? null : ByteBuffer.wrap(returnValue);
+            } catch (Exception e) {
+                logger.error("{}", e.getMessage(), e);
+                connection.response = null;
+            }
+            connection.message = null;
+            pendingResponses.add(connection);
+        }
+        selector.wakeup();
+    }
+
+    /**
+     * Registers the connections with a handled method call for writing, closes them if there is no response.
+     */
+    private void registerPendingResponses() {
+        Connection connection;
+        while ((connection = pendingResponses.poll()) != null) {
+            if (connection.response == null) {
+                closeSilent(connection.key);
+            } else if (connection.key.isValid()) {
+                connection.key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Stops the listening.
+     */
+    public void shutdown() {
+        accept = false;
+        selector.wakeup();
+    }
+
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                closeSilent(key);
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException ex) {
+            // ignore
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    private void closeSilent(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    /**
+     * The state of a single gateway connection.
+     */
+    private class Connection {
+        private final SelectionKey key;
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private volatile BinRpcMessage message;
+        private volatile ByteBuffer response;
+
+        public Connection(SelectionKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Reads the available data, returns true if a complete message has been decoded.
+         */
+        public boolean read() throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            while (true) {
+                int count = channel.read(buffer);
+                if (count < 0) {
+                    closeSilent(key);
+                    return false;
+                }
+
+                int frameLength = getFrameLength();
+                if (frameLength > 0 && buffer.position() >= frameLength) {
+                    BinRpcCodec codec = BinRpcCodec.forEncoding(config.getEncoding());
+                    buffer.flip();
+                    buffer.limit(frameLength);
+                    message = new BinRpcMessage(buffer, true, codec);
+                    buffer = null;
+                    return true;
+                }
+                if (frameLength > buffer.capacity()) {
+                    ByteBuffer larger = ByteBuffer.allocate(frameLength);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                } else if (count == 0) {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Returns the length of the frame if the header has been received, otherwise -1.
+         */
+        private int getFrameLength() throws IOException {
+            if (buffer.position() < BinRpcCodec.HEADER_LENGTH) {
+                return -1;
+            }
+            ByteBuffer header = (ByteBuffer) buffer.duplicate().flip();
+            BinRpcCodec.forEncoding(config.getEncoding()).validateSignature(header);
+            int datasize = header.getInt(4);
+            BinRpcCodec.validateDataSize(datasize);
+            return BinRpcCodec.HEADER_LENGTH + datasize;
+        }
+
+        /**
+         * Writes the response, closes the connection when the response has been written completely.
+         */
+        public void write() throws IOException {
+            ((SocketChannel) key.channel()).write(response);
+            if (!response.hasRemaining()) {
+                closeSilent(key);
+            }
+        }
+    }
+}
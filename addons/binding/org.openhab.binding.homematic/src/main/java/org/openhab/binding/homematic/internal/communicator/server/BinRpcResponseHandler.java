@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.net.Socket;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcCodec;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,7 +42,8 @@ public class BinRpcResponseHandler implements Runnable {
     @Override
     public void run() {
         try {
-            BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, config.getEncoding());
+            BinRpcCodec codec = BinRpcCodec.forEncoding(config.getEncoding());
+            BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, codec);
             logger.trace("Event BinRpcMessage: {}", message);
             byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
                     message.getResponseData());
@@ -24,6 +24,7 @@ public class BinRpcServer implements RpcServer {
 
     private Thread networkServiceThread;
     private BinRpcNetworkService networkService;
+    private BinRpcNioNetworkService nioNetworkService;
     private HomematicConfig config;
     private RpcEventListener listener;
 
@@ -34,10 +35,16 @@ public class BinRpcServer implements RpcServer {
 
     @Override
     public void start() throws IOException {
-        logger.debug("Initializing BIN-RPC server at port {}", config.getBinCallbackPort());
+        logger.debug("Initializing {}BIN-RPC server at port {}", config.isNioCallbackServer() ? "NIO " : "",
+                config.getBinCallbackPort());
 
-        networkService = new BinRpcNetworkService(listener, config);
-        networkServiceThread = new Thread(networkService);
+        if (config.isNioCallbackServer()) {
+            nioNetworkService = new BinRpcNioNetworkService(listener, config);
+            networkServiceThread = new Thread(nioNetworkService);
+        } else {
+            networkService = new BinRpcNetworkService(listener, config);
+            networkServiceThread = new Thread(networkService);
+        }
         networkServiceThread.setName("HomematicRpcServer");
         networkServiceThread.start();
     }
@@ -56,5 +63,10 @@ public class BinRpcServer implements RpcServer {
             networkService.shutdown();
             networkService = null;
         }
+        if (nioNetworkService != null) {
+            logger.debug("Stopping NIO BIN-RPC server");
+            nioNetworkService.shutdown();
+            nioNetworkService = null;
+        }
     }
 }
@@ -11,9 +11,11 @@ package org.openhab.binding.homematic.internal.communicator.server;
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
 import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
@@ -56,14 +58,22 @@ public abstract class RpcResponseHandler<T> {
             msg.addArg(getListMethods());
             return msg.createMessage();
         } else if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName)) {
+            List<Entry<HmDatapointInfo, Object>> events = new ArrayList<Entry<HmDatapointInfo, Object>>();
             for (Object o : (Object[]) responseData[0]) {
                 Map<?, ?> call = (Map<?, ?>) o;
                 if (call != null) {
                     String method = ObjectUtils.toString(call.get("methodName"));
                     Object[] data = (Object[]) call.get("params");
-                    handleMethodCall(method, data);
+                    if (RPC_METHODNAME_EVENT.equals(method)) {
+                        events.add(parseEvent(data));
+                    } else {
+                        // keep the order of the calls, events before another method are dispatched first
+                        dispatchEvents(events);
+                        handleMethodCall(method, data);
+                    }
                 }
             }
+            dispatchEvents(events);
             return getEmptyEventListResult();
         } else if (RPC_METHODNAME_SET_CONFIG_READY.equals(methodName)) {
             return getEmptyEventListResult();
@@ -95,6 +105,25 @@ public abstract class RpcResponseHandler<T> {
         return getEmptyStringResult();
     }
 
+    /**
+     * Extracts the datapoint and the value of an event.
+     */
+    private Entry<HmDatapointInfo, Object> parseEvent(Object[] message) throws IOException {
+        EventParser eventParser = new EventParser();
+        HmDatapointInfo dpInfo = eventParser.parse(message);
+        return new SimpleImmutableEntry<HmDatapointInfo, Object>(dpInfo, eventParser.getValue());
+    }
+
+    /**
+     * Populates all collected events at once to the listener and clears the list.
+     */
+    private void dispatchEvents(List<Entry<HmDatapointInfo, Object>> events) {
+        if (!events.isEmpty()) {
+            listener.eventsReceived(new ArrayList<Entry<HmDatapointInfo, Object>>(events));
+            events.clear();
+        }
+    }
+
     /**
      * Calls the listener when a devices has been detected.
      */
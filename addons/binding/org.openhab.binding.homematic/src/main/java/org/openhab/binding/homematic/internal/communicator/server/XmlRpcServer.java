@@ -14,7 +14,7 @@ import java.io.PrintWriter;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
@@ -25,7 +25,6 @@ import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest
 import org.openhab.binding.homematic.internal.communicator.message.XmlRpcResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
 
 /**
  * Reads a XML-RPC message and handles the method call.
@@ -122,7 +121,7 @@ public class XmlRpcServer implements RpcServer {
                     logger.trace("Server XmlRpcResponse:\n{}", returnValue);
                 }
                 respWriter.println(returnValue);
-            } catch (SAXException | ParserConfigurationException ex) {
+            } catch (XMLStreamException ex) {
                 logger.error("{}", ex.getMessage(), ex);
                 respWriter.println(XML_EMPTY_STRING);
             }
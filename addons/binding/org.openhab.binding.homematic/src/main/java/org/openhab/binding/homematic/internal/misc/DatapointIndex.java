@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.misc;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Index of all VALUES datapoints of the loaded devices for the event path. A datapoint is resolved with one lookup of
+ * the device address, an array access with the channel number and one lookup of the datapoint name, without creating
+ * any keys. The entries of a device are immutable, a changed device is indexed again as a whole.
+ *
+ * @author agent - Initial contribution
+ */
+public class DatapointIndex {
+    private final Map<String, Map<String, HmDatapoint>[]> datapointsByAddress = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or replaces all VALUES datapoints of the device. The gateway extras device is not indexed, because its
+     * variables and scripts are reloaded at runtime.
+     */
+    public void add(HmDevice device) {
+        if (device.isGatewayExtras()) {
+            datapointsByAddress.remove(device.getAddress());
+            return;
+        }
+
+        Collection<HmChannel> channels = device.getChannels();
+        int maxChannelNumber = -1;
+        for (HmChannel channel : channels) {
+            maxChannelNumber = Math.max(maxChannelNumber, channel.getNumber());
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, HmDatapoint>[] datapointsByChannel = new Map[maxChannelNumber + 1];
+        for (HmChannel channel : channels) {
+            if (channel.getNumber() < 0) {
+                continue;
+            }
+            Map<String, HmDatapoint> datapoints = new HashMap<String, HmDatapoint>();
+            for (HmDatapoint dp : channel.getDatapoints().values()) {
+                if (dp.getParamsetType() == HmParamsetType.VALUES) {
+                    datapoints.put(dp.getName(), dp);
+                }
+            }
+            datapointsByChannel[channel.getNumber()] = datapoints;
+        }
+        datapointsByAddress.put(device.getAddress(), datapointsByChannel);
+    }
+
+    /**
+     * Returns the VALUES datapoint or null, if the datapoint is not indexed.
+     */
+    public HmDatapoint get(String address, Integer channelNumber, String name) {
+        Map<String, HmDatapoint>[] datapointsByChannel = datapointsByAddress.get(address);
+        if (datapointsByChannel == null || channelNumber == null) {
+            return null;
+        }
+        int channel = channelNumber;
+        if (channel < 0 || channel >= datapointsByChannel.length || datapointsByChannel[channel] == null) {
+            return null;
+        }
+        return datapointsByChannel[channel].get(name);
+    }
+
+    /**
+     * Removes all datapoints of the device.
+     */
+    public void remove(String address) {
+        datapointsByAddress.remove(address);
+    }
+
+    /**
+     * Removes all devices which are not in the given addresses.
+     */
+    public void retainAll(Collection<String> addresses) {
+        datapointsByAddress.keySet().retainAll(addresses);
+    }
+
+    /**
+     * Removes all devices.
+     */
+    public void clear() {
+        datapointsByAddress.clear();
+    }
+
+    /**
+     * Returns the number of indexed devices.
+     */
+    public int size() {
+        return datapointsByAddress.size();
+    }
+}
@@ -9,24 +9,31 @@
 package org.openhab.binding.homematic.internal.misc;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Executes a callback method either immediately or after a given delay for a datapoint.
+ * Executes a callback method either immediately or after a given delay for a datapoint. All delayed callbacks are
+ * scheduled on one shared scheduler, a new callback for a datapoint with a pending callback replaces the pending one.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class DelayedExecuter {
     private final Logger logger = LoggerFactory.getLogger(DelayedExecuter.class);
+    private static final String DELAYED_POOL_NAME = "homematicDelayed";
 
-    private Map<HmDatapointInfo, Timer> delayedEvents = new HashMap<HmDatapointInfo, Timer>();
+    private final ConcurrentMap<HmDatapointInfo, DelayedTask> delayedEvents = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong firedCount = new AtomicLong();
 
     /**
      * Executes a callback method either immediately or after a given delay.
@@ -34,29 +41,19 @@ public class DelayedExecuter {
     public void start(final HmDatapointInfo dpInfo, final double delay, final DelayedExecuterCallback callback)
             throws IOException, HomematicClientException {
         if (delay > 0.0) {
-            synchronized (DelayedExecuter.class) {
-                logger.debug("Delaying event for {} seconds: '{}'", delay, dpInfo);
+            logger.debug("Delaying event for {} seconds: '{}'", delay, dpInfo);
+            ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(DELAYED_POOL_NAME);
 
-                Timer timer = delayedEvents.get(dpInfo);
-                if (timer != null) {
-                    timer.cancel();
+            // compute locks only the bin of the datapoint, events of other datapoints are not blocked
+            delayedEvents.compute(dpInfo, (key, pending) -> {
+                if (pending != null) {
+                    pending.cancel();
+                    coalescedCount.incrementAndGet();
                 }
-
-                timer = new Timer();
-                delayedEvents.put(dpInfo, timer);
-                timer.schedule(new TimerTask() {
-                    @Override
-                    public void run() {
-                        logger.debug("Executing delayed event for '{}'", dpInfo);
-                        delayedEvents.remove(dpInfo);
-                        try {
-                            callback.execute();
-                        } catch (Exception ex) {
-                            logger.error("{}", ex.getMessage(), ex);
-                        }
-                    }
-                }, (long) (delay * 1000));
-            }
+                DelayedTask task = new DelayedTask(key, callback);
+                task.future = scheduler.schedule(task, (long) (delay * 1000), TimeUnit.MILLISECONDS);
+                return task;
+            });
         } else {
             callback.execute();
         }
@@ -66,10 +63,67 @@ public class DelayedExecuter {
      * Stops all delayed events.
      */
     public void stop() {
-        for (Timer timer : delayedEvents.values()) {
-            timer.cancel();
+        for (DelayedTask task : delayedEvents.values()) {
+            task.cancel();
         }
         delayedEvents.clear();
+        logger.debug("Stopped delayed executer, fired: {}, coalesced: {}", firedCount.get(), coalescedCount.get());
+    }
+
+    /**
+     * Returns the number of delayed callbacks waiting for execution.
+     */
+    public int getPendingCount() {
+        return delayedEvents.size();
+    }
+
+    /**
+     * Returns the number of delayed callbacks which have been replaced by a newer callback for the same datapoint.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Returns the number of delayed callbacks which have been executed.
+     */
+    public long getFiredCount() {
+        return firedCount.get();
+    }
+
+    /**
+     * A scheduled callback for a datapoint.
+     */
+    private class DelayedTask implements Runnable {
+        private final HmDatapointInfo dpInfo;
+        private final DelayedExecuterCallback callback;
+        private volatile ScheduledFuture<?> future;
+
+        public DelayedTask(HmDatapointInfo dpInfo, DelayedExecuterCallback callback) {
+            this.dpInfo = dpInfo;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            // a replaced task has already been removed from the map and must not be executed
+            if (delayedEvents.remove(dpInfo, this)) {
+                logger.debug("Executing delayed event for '{}'", dpInfo);
+                firedCount.incrementAndGet();
+                try {
+                    callback.execute();
+                } catch (Exception ex) {
+                    logger.error("{}", ex.getMessage(), ex);
+                }
+            }
+        }
+
+        public void cancel() {
+            ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.misc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the datapoint descriptions of the Homematic channels in a compact binary file. The descriptions are keyed
+ * by device type, firmware and channel number, so a device with a changed type or firmware is loaded from the gateway
+ * again.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataStore {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataStore.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_INTEGER = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_DOUBLE = 3;
+    private static final byte VALUE_FLOAT = 4;
+    private static final byte VALUE_BOOLEAN = 5;
+    private static final byte VALUE_STRING = 6;
+    private static final byte VALUE_BIG_DECIMAL = 7;
+    private static final byte VALUE_BIG_INTEGER = 8;
+
+    private final File file;
+    private Map<String, Collection<HmDatapoint>> datapointsByChannelId = new HashMap<String, Collection<HmDatapoint>>();
+    private Set<String> usedChannelIds = new HashSet<String>();
+    private boolean modified;
+
+    public DeviceMetadataStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the stored metadata, starts with an empty store if the file does not exist or is not readable.
+     */
+    public synchronized void load() {
+        datapointsByChannelId.clear();
+        usedChannelIds.clear();
+        modified = false;
+        if (!file.exists()) {
+            logger.debug("No Homematic metadata store found at '{}'", file);
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                logger.debug("Ignoring Homematic metadata store with version {}", version);
+                return;
+            }
+            int channelCount = in.readInt();
+            for (int i = 0; i < channelCount; i++) {
+                String channelId = in.readUTF();
+                int datapointCount = in.readInt();
+                List<HmDatapoint> datapoints = new ArrayList<HmDatapoint>(datapointCount);
+                for (int j = 0; j < datapointCount; j++) {
+                    datapoints.add(readDatapoint(in));
+                }
+                datapointsByChannelId.put(channelId, datapoints);
+            }
+            logger.debug("Loaded metadata of {} channels from '{}'", channelCount, file);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Can't read Homematic metadata store '{}', loading all metadata from the gateway: {}", file,
+                    ex.getMessage());
+            datapointsByChannelId.clear();
+        }
+    }
+
+    /**
+     * Saves the metadata of all channels used since the last load, if something has changed.
+     */
+    public synchronized void save() {
+        if (datapointsByChannelId.keySet().retainAll(usedChannelIds)) {
+            modified = true;
+        }
+        if (!modified) {
+            return;
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            logger.warn("Can't create folder '{}' for the Homematic metadata store", parent);
+            return;
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(datapointsByChannelId.size());
+            for (Map.Entry<String, Collection<HmDatapoint>> entry : datapointsByChannelId.entrySet()) {
+                List<HmDatapoint> datapoints = new ArrayList<HmDatapoint>();
+                for (HmDatapoint dp : entry.getValue()) {
+                    if (!dp.isVirtual()) {
+                        datapoints.add(dp);
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(datapoints.size());
+                for (HmDatapoint dp : datapoints) {
+                    writeDatapoint(out, dp);
+                }
+            }
+        } catch (IOException ex) {
+            logger.warn("Can't write Homematic metadata store '{}': {}", tempFile, ex.getMessage());
+            tempFile.delete();
+            return;
+        }
+
+        if ((file.exists() && !file.delete()) || !tempFile.renameTo(file)) {
+            logger.warn("Can't replace Homematic metadata store '{}'", file);
+            tempFile.delete();
+        } else {
+            modified = false;
+            logger.debug("Saved metadata of {} channels to '{}'", datapointsByChannelId.size(), file);
+        }
+    }
+
+    /**
+     * Returns the stored datapoints of the channel or null, if there are no datapoints stored.
+     */
+    public synchronized Collection<HmDatapoint> getDatapoints(String channelId) {
+        Collection<HmDatapoint> datapoints = datapointsByChannelId.get(channelId);
+        if (datapoints != null) {
+            usedChannelIds.add(channelId);
+        }
+        return datapoints;
+    }
+
+    /**
+     * Stores the datapoints of the channel, virtual datapoints are skipped when the store is saved.
+     */
+    public synchronized void putDatapoints(String channelId, Collection<HmDatapoint> datapoints) {
+        for (HmDatapoint dp : datapoints) {
+            if (!isSupportedValue(dp.getDefaultValue()) || !isSupportedValue(dp.getMinValue())
+                    || !isSupportedValue(dp.getMaxValue()) || !isSupportedValue(dp.getStep())) {
+                logger.trace("Not storing metadata of channel '{}', unsupported value in datapoint '{}'", channelId,
+                        dp.getName());
+                return;
+            }
+        }
+        datapointsByChannelId.put(channelId, datapoints);
+        usedChannelIds.add(channelId);
+        modified = true;
+    }
+
+    private HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String description = readString(in);
+        HmValueType type = HmValueType.valueOf(in.readUTF());
+        HmParamsetType paramsetType = HmParamsetType.valueOf(in.readUTF());
+        boolean readOnly = in.readBoolean();
+
+        HmDatapoint dp = new HmDatapoint(name, description, type, null, readOnly, paramsetType);
+        dp.setReadable(in.readBoolean());
+        dp.setTrigger(in.readBoolean());
+        dp.setInfo(readString(in));
+        dp.setUnit(readString(in));
+        dp.setMinValue((Number) readValue(in));
+        dp.setMaxValue((Number) readValue(in));
+        dp.setStep((Number) readValue(in));
+        dp.setDefaultValue(readValue(in));
+
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = in.readUTF();
+            }
+            dp.setOptions(options);
+        }
+        return dp;
+    }
+
+    private void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        out.writeUTF(dp.getName());
+        writeString(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        out.writeUTF(dp.getParamsetType().name());
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        out.writeBoolean(dp.isTrigger());
+        writeString(out, dp.getInfo());
+        writeString(out, dp.getUnit());
+        writeValue(out, dp.getMinValue());
+        writeValue(out, dp.getMaxValue());
+        writeValue(out, dp.getStep());
+        writeValue(out, dp.getDefaultValue());
+
+        String[] options = dp.getOptions();
+        if (options == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(options.length);
+            for (String option : options) {
+                out.writeUTF(option);
+            }
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private boolean isSupportedValue(Object value) {
+        return value == null || value instanceof Integer || value instanceof Long || value instanceof Double
+                || value instanceof Float || value instanceof Boolean || value instanceof String
+                || value instanceof BigDecimal || value instanceof BigInteger;
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_FLOAT:
+                return in.readFloat();
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_STRING:
+                return in.readUTF();
+            case VALUE_BIG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case VALUE_BIG_INTEGER:
+                return new BigInteger(in.readUTF());
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(VALUE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(VALUE_BIG_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(VALUE_BIG_INTEGER);
+            out.writeUTF(value.toString());
+        } else {
+            throw new IOException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+}
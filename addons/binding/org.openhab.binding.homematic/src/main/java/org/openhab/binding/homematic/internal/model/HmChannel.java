@@ -32,6 +32,7 @@ public class HmChannel {
     private String type;
     private HmDevice device;
     private boolean initialized;
+    private volatile long lastValuesUpdate;
     private Map<HmDatapointInfo, HmDatapoint> datapoints = new HashMap<HmDatapointInfo, HmDatapoint>();
 
     /**
@@ -92,6 +93,20 @@ public class HmChannel {
         return initialized;
     }
 
+    /**
+     * Returns the time in milliseconds, when a value of the channel has been received or loaded the last time.
+     */
+    public long getLastValuesUpdate() {
+        return lastValuesUpdate;
+    }
+
+    /**
+     * Sets the time in milliseconds, when a value of the channel has been received or loaded the last time.
+     */
+    public void setLastValuesUpdate(long lastValuesUpdate) {
+        this.lastValuesUpdate = lastValuesUpdate;
+    }
+
     /**
      * Returns true, if the channel contains gateway scripts.
      */
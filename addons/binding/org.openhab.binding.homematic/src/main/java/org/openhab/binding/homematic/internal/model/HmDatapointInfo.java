@@ -8,8 +8,7 @@
  */
 package org.openhab.binding.homematic.internal.model;
 
-import org.apache.commons.lang.builder.EqualsBuilder;
-import org.apache.commons.lang.builder.HashCodeBuilder;
+import java.util.Objects;
 
 /**
  * Simple representation of a datapoint.
@@ -88,17 +87,26 @@ public class HmDatapointInfo {
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder().append(address).append(paramsetType).append(channel).append(name).toHashCode();
+        // computed without a builder, the hash is calculated for every received event
+        int result = 17;
+        result = 37 * result + (address == null ? 0 : address.hashCode());
+        result = 37 * result + (paramsetType == null ? 0 : paramsetType.hashCode());
+        result = 37 * result + (channel == null ? 0 : channel.hashCode());
+        result = 37 * result + (name == null ? 0 : name.hashCode());
+        return result;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (obj == null || !(obj instanceof HmDatapointInfo)) {
             return false;
         }
         HmDatapointInfo comp = (HmDatapointInfo) obj;
-        return new EqualsBuilder().append(address, comp.getAddress()).append(paramsetType, comp.getParamsetType())
-                .append(channel, comp.getChannel()).append(name, comp.getName()).isEquals();
+        return paramsetType == comp.getParamsetType() && Objects.equals(address, comp.getAddress())
+                && Objects.equals(channel, comp.getChannel()) && Objects.equals(name, comp.getName());
     }
 
     @Override
@@ -294,10 +294,12 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
         dynamicStateDescriptionProvider.removeAllDescriptions();
 
         logger.trace("Building new channels ({} controls)", server.getControls().size());
+        Set<LxUuid> subscribedControls = new HashSet<>();
         for (LxControl control : server.getControls().values()) {
             List<Channel> newChannels = createChannelsForControl(control);
             if (newChannels != null) {
                 channels.addAll(newChannels);
+                subscribedControls.add(control.getUuid());
                 for (Channel channel : newChannels) {
                     ChannelUID id = channel.getUID();
                     controls.put(id, control);
@@ -305,6 +307,9 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
             }
         }
 
+        // state updates will be received only for the controls that have channels
+        server.subscribeControls(this, subscribedControls);
+
         logger.trace("Sorting channels");
         channels.sort(new Comparator<Channel>() {
             @Override
@@ -380,6 +385,7 @@ public class LoxoneMiniserverHandler extends BaseThingHandler implements LxServe
                 newChannels.forEach((k, v) -> {
                     builder.withChannel(k);
                     controls.put(k.getUID(), v);
+                    server.subscribeControl(this, v.getUuid());
                 });
 
                 updateThing(builder.build());
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * A cache of Miniserver's structure file LoxAPP3.json.
+ * <p>
+ * The last received structure file is stored in openHAB user data folder and the parsed structure is kept in memory.
+ * When the modification stamp of the structure file on the Miniserver matches the stamp of the cached structure, the
+ * cached structure can be used instead of downloading and parsing the file again. Returning the same parsed object
+ * allows {@link LxServer} to skip rebuilding controls and channels on reconnect.
+ *
+ * @author agent - initial contribution
+ *
+ */
+class LxConfigCache {
+    private static final String CACHE_FOLDER = "loxone";
+
+    private final File file;
+    private final Gson gson;
+    private final int debugId;
+    private LxJsonApp3 config;
+    private final Logger logger = LoggerFactory.getLogger(LxConfigCache.class);
+
+    /**
+     * Create a cache for a Miniserver
+     *
+     * @param debugId
+     *            instance of the client used for debugging purposes only
+     * @param name
+     *            unique name of the Miniserver, used as cache file name
+     * @param gson
+     *            Gson object to parse and serialize the structure file
+     */
+    LxConfigCache(int debugId, String name, Gson gson) {
+        this.debugId = debugId;
+        this.gson = gson;
+        file = new File(ConfigConstants.getUserDataFolder() + File.separator + CACHE_FOLDER,
+                name.replaceAll("[^\\w.-]", "_") + ".json");
+    }
+
+    /**
+     * Get cached structure if it has the same modification stamp as the structure file on the Miniserver. If the
+     * structure is not in memory yet, it is loaded from the cache file.
+     *
+     * @param lastModified
+     *            modification stamp of the structure file on the Miniserver
+     * @return
+     *         cached structure or null if there is no cached structure with this stamp
+     */
+    synchronized LxJsonApp3 get(String lastModified) {
+        if (lastModified == null) {
+            return null;
+        }
+        if (config == null && file.exists()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                config = gson.fromJson(reader, LxJsonApp3.class);
+                logger.debug("[{}] Loaded cached configuration from {}", debugId, file);
+            } catch (IOException | JsonParseException e) {
+                logger.debug("[{}] Error reading cached configuration from {}: {}", debugId, file, e.getMessage());
+            }
+        }
+        if (config != null && lastModified.equals(config.lastModified)) {
+            return config;
+        }
+        return null;
+    }
+
+    /**
+     * Store a new structure received from the Miniserver
+     *
+     * @param json
+     *            structure file as received from the Miniserver
+     * @param parsed
+     *            structure parsed from the received file
+     */
+    synchronized void put(String json, LxJsonApp3 parsed) {
+        config = parsed;
+        if (parsed.lastModified == null) {
+            file.delete();
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(json);
+            }
+            logger.debug("[{}] Stored configuration from {} in {}", debugId, parsed.lastModified, file);
+        } catch (IOException e) {
+            logger.debug("[{}] Error storing configuration in {}: {}", debugId, file, e.getMessage());
+        }
+    }
+}
@@ -9,15 +9,19 @@
 package org.openhab.binding.loxone.internal.core;
 
 import java.net.InetAddress;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -88,6 +92,8 @@ public class LxServer {
     private int comErrorDelay = 30;
 
     // Data structures
+    // Configuration from which the data structures were built, the same object is received for a cached configuration
+    private LxJsonApp3 currentConfig;
     private final Map<LxUuid, LxControl> controls = new HashMap<>();
     private final Map<LxUuid, LxContainer> rooms = new HashMap<>();
     private final Map<LxUuid, LxCategory> categories = new HashMap<>();
@@ -96,7 +102,22 @@ public class LxServer {
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private final Map<LxUuid, Map<LxUuid, LxControlState>> states = new HashMap<>();
-    private final List<LxServerListener> listeners = new ArrayList<>();
+    private final List<LxServerListener> listeners = new CopyOnWriteArrayList<>();
+    // Immutable snapshots rebuilt after each configuration update, safe to be read by other threads
+    // States index uses binary UUID keys, to process state update tables without creating UUID objects
+    private volatile Map<LxUuid, LxControl> controlsSnapshot = Collections.emptyMap();
+    private volatile LxUuidMap<LxStateBinding[]> statesIndex = new LxUuidMap<>(0);
+    private volatile boolean statesIndexComplete = true;
+    // Listeners subscribed to state updates of a control, the map is replaced on every change of subscriptions
+    private volatile Map<LxUuid, LxServerListener[]> controlListeners = Collections.emptyMap();
+
+    // Statistics
+    private static final long UPDATE_RATE_WINDOW_MS = 10000;
+    private final AtomicLong stateUpdates = new AtomicLong();
+    private volatile double stateUpdateRate;
+    private long rateWindowStart = System.currentTimeMillis();
+    private long rateWindowUpdates;
+    private volatile int maxQueueDepth;
 
     // Services
     private LxWsClient socketClient;
@@ -239,6 +260,97 @@ public class LxServer {
      */
     public void removeListener(LxServerListener listener) {
         listeners.remove(listener);
+        subscribeControls(listener, Collections.emptyList());
+    }
+
+    /**
+     * Subscribes a listener to state updates of the given controls. Any previous subscriptions of the listener are
+     * replaced. State updates are passed only to the listeners subscribed to the control.
+     *
+     * @param listener
+     *            listener to receive state updates
+     * @param controlUuids
+     *            UUIDs of the controls to subscribe to
+     */
+    public synchronized void subscribeControls(LxServerListener listener, Collection<LxUuid> controlUuids) {
+        Map<LxUuid, LxServerListener[]> subscriptions = new HashMap<>();
+        controlListeners.forEach((uuid, subscribers) -> {
+            LxServerListener[] others = Arrays.stream(subscribers).filter(l -> l != listener)
+                    .toArray(LxServerListener[]::new);
+            if (others.length > 0) {
+                subscriptions.put(uuid, others);
+            }
+        });
+        for (LxUuid uuid : controlUuids) {
+            addSubscriber(subscriptions, uuid, listener);
+        }
+        controlListeners = Collections.unmodifiableMap(subscriptions);
+    }
+
+    /**
+     * Subscribes a listener to state updates of a control, in addition to its existing subscriptions.
+     *
+     * @param listener
+     *            listener to receive state updates
+     * @param controlUuid
+     *            UUID of the control to subscribe to
+     */
+    public synchronized void subscribeControl(LxServerListener listener, LxUuid controlUuid) {
+        Map<LxUuid, LxServerListener[]> subscriptions = new HashMap<>(controlListeners);
+        addSubscriber(subscriptions, controlUuid, listener);
+        controlListeners = Collections.unmodifiableMap(subscriptions);
+    }
+
+    private void addSubscriber(Map<LxUuid, LxServerListener[]> subscriptions, LxUuid uuid,
+            LxServerListener listener) {
+        LxServerListener[] subscribers = subscriptions.get(uuid);
+        if (subscribers == null) {
+            subscriptions.put(uuid, new LxServerListener[] { listener });
+        } else if (!Arrays.asList(subscribers).contains(listener)) {
+            LxServerListener[] extended = Arrays.copyOf(subscribers, subscribers.length + 1);
+            extended[subscribers.length] = listener;
+            subscriptions.put(uuid, extended);
+        }
+    }
+
+    /**
+     * Gets total number of control state updates received from the Miniserver
+     *
+     * @return
+     *         number of state updates
+     */
+    public long getStateUpdateCount() {
+        return stateUpdates.get();
+    }
+
+    /**
+     * Gets rate of control state updates received from the Miniserver, averaged over last 10 seconds
+     *
+     * @return
+     *         state updates per second
+     */
+    public double getStateUpdatesPerSecond() {
+        return stateUpdateRate;
+    }
+
+    /**
+     * Gets number of events waiting in the queue for processing by the server thread
+     *
+     * @return
+     *         current depth of the event queue
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Gets maximum number of events that were waiting in the queue for processing by the server thread
+     *
+     * @return
+     *         maximum depth of the event queue
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
     }
 
     /**
@@ -269,13 +381,10 @@ public class LxServer {
      *         Found control or null if not found
      */
     public LxControl findControl(LxUuid id) {
-        if (controls == null || id == null) {
+        if (id == null) {
             return null;
         }
-        if (controls.containsKey(id)) {
-            return controls.get(id);
-        }
-        return null;
+        return controlsSnapshot.get(id);
     }
 
     /**
@@ -287,7 +396,7 @@ public class LxServer {
      *         Found control or null if not found
      */
     public LxControl findControl(String name) {
-        for (LxControl l : controls.values()) {
+        for (LxControl l : controlsSnapshot.values()) {
             if (l.getName().equals(name)) {
                 return l;
             }
@@ -301,7 +410,7 @@ public class LxServer {
      * @return Map of controls with UUID as a key
      */
     public Map<LxUuid, LxControl> getControls() {
-        return controls;
+        return controlsSnapshot;
     }
 
     /**
@@ -430,12 +539,19 @@ public class LxServer {
 
         private boolean processMessage(LxServerEvent wsMsg) {
             EventType event = wsMsg.getEvent();
+            int queueDepth = queue.size();
+            if (queueDepth > maxQueueDepth) {
+                maxQueueDepth = queueDepth;
+            }
             logger.trace("[{}] Server received event: {}", debugId, event);
             switch (event) {
                 case RECEIVED_CONFIG:
                     LxJsonApp3 config = (LxJsonApp3) wsMsg.getObject();
-                    if (config != null) {
+                    if (config != null && config == currentConfig) {
+                        logger.debug("[{}] Configuration not changed, keeping controls and channels", debugId);
+                    } else if (config != null) {
                         updateConfig(config);
+                        currentConfig = config;
                         for (LxServerListener listener : listeners) {
                             listener.onNewConfig(server);
                         }
@@ -444,25 +560,8 @@ public class LxServer {
                     }
                     break;
                 case STATE_UPDATE:
-                    LxWsStateUpdateEvent update = (LxWsStateUpdateEvent) wsMsg.getObject();
-                    Map<LxUuid, LxControlState> perStateUuid = findState(update.getUuid());
-                    if (perStateUuid != null) {
-                        perStateUuid.forEach((controlUuid, state) -> {
-                            state.setValue(update.getValue(), update.getText());
-                            LxControl control = state.getControl();
-                            if (control != null) {
-                                logger.debug("[{}] State update {} ({}:{}) to value {}, text '{}'", debugId,
-                                        update.getUuid(), control.getName(), state.getName(), update.getValue(),
-                                        update.getText());
-                                for (LxServerListener listener : listeners) {
-                                    listener.onControlStateUpdate(control, state.getName().toLowerCase());
-                                }
-                            } else {
-                                logger.debug("[{}] State update {} ({}) of unknown control", debugId, update.getUuid(),
-                                        state.getName());
-                            }
-                        });
-                    }
+                    LxWsStateUpdateTable table = (LxWsStateUpdateTable) wsMsg.getObject();
+                    updateStates(table);
                     break;
                 case SERVER_ONLINE:
                     for (LxServerListener listener : listeners) {
@@ -565,6 +664,99 @@ public class LxServer {
         removeUnusedFromMap(categories);
         removeUnusedFromMap(controls);
         removeUnusedFromMap(states);
+        buildSnapshots();
+    }
+
+    /**
+     * Rebuilds the snapshots of controls and state bindings from the maps modified by the configuration update
+     */
+    private void buildSnapshots() {
+        LxUuidMap<LxStateBinding[]> index = new LxUuidMap<>(states.size());
+        boolean complete = true;
+        for (Map.Entry<LxUuid, Map<LxUuid, LxControlState>> entry : states.entrySet()) {
+            if (!index.put(entry.getKey(), createBindings(entry.getValue()))) {
+                logger.debug("[{}] State UUID {} has no binary form, not indexed", debugId, entry.getKey());
+                complete = false;
+            }
+        }
+        statesIndex = index;
+        statesIndexComplete = complete;
+        controlsSnapshot = Collections.unmodifiableMap(new HashMap<>(controls));
+    }
+
+    /**
+     * Creates bindings of a state UUID to all control states using it
+     *
+     * @param perStateUuid
+     *            map of all state objects with control UUID as key
+     * @return
+     *         array of bindings
+     */
+    private LxStateBinding[] createBindings(Map<LxUuid, LxControlState> perStateUuid) {
+        return perStateUuid.values().stream().map(LxStateBinding::new).toArray(LxStateBinding[]::new);
+    }
+
+    /**
+     * Updates all states received in one table from Miniserver and notifies the listeners
+     *
+     * @param table
+     *            table of state updates received from Miniserver
+     */
+    private void updateStates(LxWsStateUpdateTable table) {
+        LxUuidMap<LxStateBinding[]> index = statesIndex;
+        Map<LxUuid, LxServerListener[]> subscriptions = controlListeners;
+        table.reset();
+        while (table.next()) {
+            LxStateBinding[] bindings = index.get(table.getUuidHigh(), table.getUuidLow());
+            if (bindings == null && !statesIndexComplete) {
+                Map<LxUuid, LxControlState> perStateUuid = findState(table.getUuid());
+                if (perStateUuid != null) {
+                    bindings = createBindings(perStateUuid);
+                }
+            }
+            if (bindings == null) {
+                continue;
+            }
+            Double value = table.getValue();
+            String text = table.getText();
+            for (LxStateBinding binding : bindings) {
+                binding.state.setValue(value, text);
+                if (binding.control != null) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[{}] State update {} ({}:{}) to value {}, text '{}'", debugId,
+                                table.getUuid(), binding.control.getName(), binding.state.getName(), value, text);
+                    }
+                    LxServerListener[] subscribers = subscriptions.get(binding.control.getUuid());
+                    if (subscribers != null) {
+                        for (LxServerListener listener : subscribers) {
+                            listener.onControlStateUpdate(binding.control, binding.stateName);
+                        }
+                    }
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("[{}] State update {} ({}) of unknown control", debugId, table.getUuid(),
+                            binding.state.getName());
+                }
+            }
+        }
+        updateStatistics(table.size());
+        logger.trace("[{}] Processed table of {} state updates", debugId, table.size());
+    }
+
+    /**
+     * Updates the counters of received state updates
+     *
+     * @param count
+     *            number of state updates received
+     */
+    private void updateStatistics(int count) {
+        long total = stateUpdates.addAndGet(count);
+        long now = System.currentTimeMillis();
+        long elapsed = now - rateWindowStart;
+        if (elapsed >= UPDATE_RATE_WINDOW_MS) {
+            stateUpdateRate = (total - rateWindowUpdates) * 1000.0 / elapsed;
+            rateWindowStart = now;
+            rateWindowUpdates = total;
+        }
     }
 
     /**
@@ -776,4 +968,23 @@ public class LxServer {
         }
         return name;
     }
+
+    /**
+     * Binding of a state UUID to a control's state, with the state name key used for listener notifications
+     * precomputed
+     *
+     * @author agent - initial contribution
+     *
+     */
+    private static class LxStateBinding {
+        private final LxControlState state;
+        private final LxControl control;
+        private final String stateName;
+
+        LxStateBinding(LxControlState state) {
+            this.state = state;
+            this.control = state.getControl();
+            this.stateName = state.getName().toLowerCase();
+        }
+    }
 }
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A map with binary UUID keys, used to resolve UUIDs received in binary messages from Loxone Miniserver without
+ * creating {@link LxUuid} objects.
+ * <p>
+ * A UUID is stored as two long values, which correspond to the hexadecimal digits of the {@link LxUuid} string
+ * representation. The map uses open addressing and is not thread safe.
+ *
+ * @author agent - initial contribution
+ *
+ * @param <T>
+ *            type of values stored in the map
+ */
+class LxUuidMap<T> {
+    private static final int UUID_HEX_DIGITS = 32;
+
+    private long[] highs;
+    private long[] lows;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Create a new empty map
+     *
+     * @param expectedSize
+     *            expected number of entries
+     */
+    LxUuidMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        highs = new long[capacity];
+        lows = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Put a value into the map
+     *
+     * @param uuid
+     *            UUID of the value
+     * @param value
+     *            value to store, must not be null
+     * @return
+     *         true if value was stored, false if the UUID has no binary representation
+     */
+    boolean put(LxUuid uuid, T value) {
+        String hex = uuid.toString().replace("-", "");
+        if (hex.length() != UUID_HEX_DIGITS) {
+            return false;
+        }
+        long high;
+        long low;
+        try {
+            high = Long.parseUnsignedLong(hex.substring(0, UUID_HEX_DIGITS / 2), 16);
+            low = Long.parseUnsignedLong(hex.substring(UUID_HEX_DIGITS / 2), 16);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (size * 2 >= values.length) {
+            resize();
+        }
+        int index = indexOf(high, low);
+        if (values[index] == null) {
+            size++;
+        }
+        highs[index] = high;
+        lows[index] = low;
+        values[index] = value;
+        return true;
+    }
+
+    /**
+     * Get a value from the map
+     *
+     * @param high
+     *            high 64 bits of the UUID
+     * @param low
+     *            low 64 bits of the UUID
+     * @return
+     *         value stored for the UUID or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    T get(long high, long low) {
+        return (T) values[indexOf(high, low)];
+    }
+
+    /**
+     * Get number of entries in the map
+     *
+     * @return
+     *         number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Read high 64 bits of a binary UUID (int and two shorts) in the order of its string representation
+     *
+     * @param buffer
+     *            buffer with the UUID, in little endian order
+     * @param offset
+     *            offset of the UUID in the buffer
+     * @return
+     *         high 64 bits of the UUID
+     */
+    static long getHigh(ByteBuffer buffer, int offset) {
+        return (buffer.getInt(offset) & 0xffffffffL) << 32 | (buffer.getShort(offset + 4) & 0xffffL) << 16
+                | (buffer.getShort(offset + 6) & 0xffffL);
+    }
+
+    /**
+     * Read low 64 bits of a binary UUID (8 single bytes) in the order of its string representation
+     *
+     * @param buffer
+     *            buffer with the UUID, in little endian order
+     * @param offset
+     *            offset of the UUID in the buffer
+     * @return
+     *         low 64 bits of the UUID
+     */
+    static long getLow(ByteBuffer buffer, int offset) {
+        return Long.reverseBytes(buffer.getLong(offset + 8));
+    }
+
+    private int indexOf(long high, long low) {
+        int mask = values.length - 1;
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (values[index] != null && (highs[index] != high || lows[index] != low)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        Object[] oldValues = values;
+        highs = new long[oldValues.length * 2];
+        lows = new long[oldValues.length * 2];
+        values = new Object[oldValues.length * 2];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldHighs[i], oldLows[i]);
+                highs[index] = oldHighs[i];
+                lows[index] = oldLows[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
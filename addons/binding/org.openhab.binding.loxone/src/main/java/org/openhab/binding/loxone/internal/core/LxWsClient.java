@@ -70,6 +70,7 @@ class LxWsClient {
     private String macAddress;
     private LxWsSecurityType securityType;
     private final Gson gson = new Gson();
+    private final LxConfigCache configCache;
     private ScheduledFuture<?> timeout;
     private LxWebSocket socket;
     private WebSocketClient wsClient;
@@ -86,6 +87,7 @@ class LxWsClient {
     private static final String CMD_KEEPALIVE = "keepalive";
     private static final String CMD_ENABLE_UPDATES = "jdev/sps/enablebinstatusupdate";
     private static final String CMD_GET_APP_CONFIG = "data/LoxAPP3.json";
+    private static final String CMD_GET_APP_CONFIG_VERSION = "jdev/sps/LoxAPPversion3";
     private static final String CMD_CFG_API = "jdev/cfg/api";
 
     /**
@@ -243,6 +245,7 @@ class LxWsClient {
         this.port = port;
         this.user = user;
         this.password = password;
+        this.configCache = new LxConfigCache(debugId, host.getHostAddress() + "_" + port, gson);
     }
 
     /**
@@ -549,6 +552,8 @@ class LxWsClient {
         private LxWsSecurity security;
         private boolean syncRequest;
         private LxJsonSubResponse commandResponse;
+        // command, which timed out without closing the connection, its late response is discarded
+        private volatile String timedOutCommand;
         private final Lock responseLock = new ReentrantLock();
         private final Condition responseAvailable = responseLock.newCondition();
 
@@ -651,20 +656,13 @@ class LxWsClient {
                     switch (header.type) {
                         case EVENT_TABLE_OF_VALUE_STATES:
                             stopResponseTimeout();
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(true, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            // whole table is passed to the server as one event
+                            notifyMaster(EventType.STATE_UPDATE, null,
+                                    new LxWsStateUpdateTable(true, data, offset, length));
                             break;
                         case EVENT_TABLE_OF_TEXT_STATES:
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(false, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            notifyMaster(EventType.STATE_UPDATE, null,
+                                    new LxWsStateUpdateTable(false, data, offset, length));
                             break;
                         case KEEPALIVE_RESPONSE:
                         case TEXT_MESSAGE:
@@ -702,20 +700,17 @@ class LxWsClient {
                         processResponse(msg);
                         break;
                     case UPDATING_CONFIGURATION:
+                        if (timedOutCommand != null && getSubResponse(msg) != null) {
+                            // late response to the configuration version request
+                            processResponse(msg);
+                            break;
+                        }
                         try {
                             stopResponseTimeout();
                             LxJsonApp3 config = gson.fromJson(msg, LxJsonApp3.class);
-                            if (config.msInfo != null) {
-                                config.msInfo.swVersion = swVersion;
-                                config.msInfo.macAddress = macAddress;
-                            }
                             logger.debug("[{}] Received configuration from server", debugId);
-                            notifyMaster(EventType.RECEIVED_CONFIG, null, config);
-                            setClientState(ClientState.RUNNING);
-                            notifyMaster(EventType.SERVER_ONLINE, null, null);
-                            if (sendCmdWithResp(CMD_ENABLE_UPDATES, false, false) == null) {
-                                notifyAndClose(LxOfflineReason.COMMUNICATION_ERROR, "Failed to enable state updates.");
-                            }
+                            configCache.put(msg, config);
+                            configurationReady(config);
                         } catch (JsonParseException e) {
                             notifyAndClose(LxOfflineReason.INTERNAL_ERROR, "Error processing received configuration");
                         }
@@ -812,6 +807,26 @@ class LxWsClient {
          *         response received (for sync command) or to be received (for async), null if error occurred
          */
         LxJsonSubResponse sendCmdWithResp(String command, boolean sync, boolean encrypt) {
+            return sendCmdWithResp(command, sync, encrypt, true);
+        }
+
+        /**
+         * Sends a command to the Miniserver like {@link #sendCmdWithResp(String, boolean, boolean)}.
+         *
+         * @param command
+         *            command to send to the Miniserver
+         * @param sync
+         *            true is synchronous request, false if ansynchronous
+         * @param encrypt
+         *            true if command can be encrypted
+         * @param closeOnTimeout
+         *            true if a response timeout of a synchronous request closes the connection, if false the request
+         *            returns null and a late response is discarded
+         * @return
+         *         response received (for sync command) or to be received (for async), null if error occurred
+         */
+        private LxJsonSubResponse sendCmdWithResp(String command, boolean sync, boolean encrypt,
+                boolean closeOnTimeout) {
             responseLock.lock();
             try {
                 if (commandResponse != null) {
@@ -828,7 +843,12 @@ class LxWsClient {
                 if (sync) {
                     if (!responseAvailable.await(connectTimeout, TimeUnit.SECONDS)) {
                         commandResponse = null;
-                        responseTimeout();
+                        if (closeOnTimeout) {
+                            responseTimeout();
+                        } else {
+                            logger.debug("[{}] No response to command: {}", debugId, command);
+                            timedOutCommand = command;
+                        }
                         return null;
                     }
                     commandResponse = null;
@@ -916,6 +936,11 @@ class LxWsClient {
             }
             responseLock.lock();
             try {
+                if (control.equals(timedOutCommand)) {
+                    logger.debug("[{}] Discarding late response: {}", debugId, control);
+                    timedOutCommand = null;
+                    return;
+                }
                 if (commandResponse == null) {
                     logger.warn("[{}] Received response, but awaiting none.", debugId);
                     return;
@@ -951,10 +976,21 @@ class LxWsClient {
          */
         private void authenticated() {
             logger.debug("[{}] Websocket authentication successfull.", debugId);
+            // this method is called from authentication thread, so synchronous command can be sent here
+            LxJsonApp3 cachedConfig = configCache.get(getConfigVersion());
             stateMachineLock.lock();
             try {
+                if (state != ClientState.CONNECTED) {
+                    logger.debug("[{}] Authentication completed in state {}", debugId, state);
+                    return;
+                }
                 setClientState(ClientState.UPDATING_CONFIGURATION);
-                if (sendCmdNoResp(CMD_GET_APP_CONFIG, false)) {
+                if (cachedConfig != null) {
+                    logger.debug("[{}] Configuration not modified since {}, using cached configuration", debugId,
+                            cachedConfig.lastModified);
+                    startKeepAlive();
+                    configurationReady(cachedConfig);
+                } else if (sendCmdNoResp(CMD_GET_APP_CONFIG, false)) {
                     startResponseTimeout();
                     startKeepAlive();
                 } else {
@@ -965,6 +1001,48 @@ class LxWsClient {
             }
         }
 
+        /**
+         * Get modification stamp of the structure file on the Miniserver.
+         * This method sends a synchronous command and must not be called from the websocket thread.
+         *
+         * @return
+         *         modification stamp or null if it could not be obtained
+         */
+        private String getConfigVersion() {
+            // a timeout must not close the connection, the configuration is downloaded instead
+            LxJsonSubResponse response = sendCmdWithResp(CMD_GET_APP_CONFIG_VERSION, true, false, false);
+            if (response == null || response.code != 200 || response.value == null) {
+                logger.debug("[{}] Failed to get configuration version", debugId);
+                return null;
+            }
+            try {
+                return response.value.getAsString();
+            } catch (ClassCastException | IllegalStateException e) {
+                logger.debug("[{}] Unexpected configuration version: {}", debugId, response.value);
+                return null;
+            }
+        }
+
+        /**
+         * Pass Miniserver's configuration to the server and start receiving state updates.
+         * The caller must take care of thread synchronization.
+         *
+         * @param config
+         *            configuration received from the Miniserver or taken from the cache
+         */
+        private void configurationReady(LxJsonApp3 config) {
+            if (config.msInfo != null) {
+                config.msInfo.swVersion = swVersion;
+                config.msInfo.macAddress = macAddress;
+            }
+            notifyMaster(EventType.RECEIVED_CONFIG, null, config);
+            setClientState(ClientState.RUNNING);
+            notifyMaster(EventType.SERVER_ONLINE, null, null);
+            if (sendCmdWithResp(CMD_ENABLE_UPDATES, false, false) == null) {
+                notifyAndClose(LxOfflineReason.COMMUNICATION_ERROR, "Failed to enable state updates.");
+            }
+        }
+
         /**
          * Start keep alive thread. The thread will periodically send keep alive messages until {@link #stopKeepAlive()}
          * is called or a connection terminates.
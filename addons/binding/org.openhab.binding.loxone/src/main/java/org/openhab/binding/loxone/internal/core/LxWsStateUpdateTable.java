@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A table of control's state updates received from Loxone Miniserver in one binary message.
+ * <p>
+ * The table is kept in its binary form and traversed in place with a cursor, so no objects are created for the
+ * entries of value tables. The UUID of the current entry is available as two long values, to be resolved with a
+ * {@link LxUuidMap}.
+ *
+ * @author agent - initial contribution
+ *
+ */
+class LxWsStateUpdateTable {
+    private static final int UUID_SIZE = 16;
+    private static final int VALUE_ENTRY_SIZE = 24;
+    private static final int TEXT_HEADER_SIZE = 36;
+
+    private final boolean isValueTable;
+    private final ByteBuffer buffer;
+    private final int size;
+    private int position;
+    private int entryOffset = -1;
+
+    /**
+     * Create a new state update table from binary message. The message is copied, so the buffer can be reused by the
+     * caller.
+     *
+     * @param isValueTable
+     *            true if this table updates double values, false if it updates text messages
+     * @param data
+     *            buffer with binary message received from Miniserver
+     * @param offset
+     *            offset in buffer where the table starts
+     * @param length
+     *            length of the table in bytes
+     * @throws IndexOutOfBoundsException
+     *             when the table is malformed
+     */
+    LxWsStateUpdateTable(boolean isValueTable, byte data[], int offset, int length) throws IndexOutOfBoundsException {
+        this.isValueTable = isValueTable;
+        buffer = ByteBuffer.wrap(Arrays.copyOfRange(data, offset, offset + length)).order(ByteOrder.LITTLE_ENDIAN);
+
+        int count = 0;
+        int entry = 0;
+        while (entry < length) {
+            entry += getEntrySize(entry);
+            count++;
+        }
+        size = count;
+    }
+
+    /**
+     * Check if this table contains value updates
+     *
+     * @return
+     *         true if entries contain double values, false if entries contain text
+     */
+    boolean isValueTable() {
+        return isValueTable;
+    }
+
+    /**
+     * Get number of state updates in the table
+     *
+     * @return
+     *         number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Move cursor before the first entry of the table
+     */
+    void reset() {
+        position = 0;
+        entryOffset = -1;
+    }
+
+    /**
+     * Move cursor to the next entry of the table
+     *
+     * @return
+     *         true if cursor points to a valid entry, false if there are no more entries
+     */
+    boolean next() {
+        if (position >= buffer.limit()) {
+            entryOffset = -1;
+            return false;
+        }
+        entryOffset = position;
+        position += getEntrySize(position);
+        return true;
+    }
+
+    /**
+     * Get high 64 bits of current entry's state UUID
+     *
+     * @return
+     *         first 8 bytes of UUID in the order used by {@link LxUuid} string representation
+     */
+    long getUuidHigh() {
+        return LxUuidMap.getHigh(buffer, entryOffset);
+    }
+
+    /**
+     * Get low 64 bits of current entry's state UUID
+     *
+     * @return
+     *         last 8 bytes of UUID in the order used by {@link LxUuid} string representation
+     */
+    long getUuidLow() {
+        return LxUuidMap.getLow(buffer, entryOffset);
+    }
+
+    /**
+     * Get UUID of current entry's state as an object, used for logging and lookups of not indexed states
+     *
+     * @return
+     *         UUID of the state
+     */
+    LxUuid getUuid() {
+        return new LxUuid(buffer.array(), entryOffset);
+    }
+
+    /**
+     * Get value of current entry
+     *
+     * @return
+     *         value of the state or null if this is a text table
+     */
+    Double getValue() {
+        if (!isValueTable) {
+            return null;
+        }
+        return buffer.getDouble(entryOffset + UUID_SIZE);
+    }
+
+    /**
+     * Get text of current entry
+     *
+     * @return
+     *         text of the state or null if this is a value table
+     */
+    String getText() {
+        if (isValueTable) {
+            return null;
+        }
+        int textLen = buffer.getInt(entryOffset + 2 * UUID_SIZE);
+        return new String(buffer.array(), entryOffset + TEXT_HEADER_SIZE, textLen);
+    }
+
+    /**
+     * Get size of binary representation of state update entry in bytes
+     *
+     * @param offset
+     *            offset of the entry in the table
+     * @return
+     *         size of entry including padding
+     */
+    private int getEntrySize(int offset) {
+        if (isValueTable) {
+            if (offset + VALUE_ENTRY_SIZE > buffer.limit()) {
+                throw new IndexOutOfBoundsException("Value entry at offset " + offset + " exceeds message");
+            }
+            return VALUE_ENTRY_SIZE;
+        }
+        int textLen = buffer.getInt(offset + 2 * UUID_SIZE);
+        if (textLen < 0) {
+            throw new IndexOutOfBoundsException("Negative text length at offset " + offset);
+        }
+        int entrySize = TEXT_HEADER_SIZE + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
+        if (offset + TEXT_HEADER_SIZE + textLen > buffer.limit()) {
+            throw new IndexOutOfBoundsException("Text entry at offset " + offset + " exceeds message");
+        }
+        return entrySize;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+
+/**
+ * Tests cases for {@see PassivePresenceCache}
+ *
+ * @author agent - Initial contribution
+ */
+public class PassivePresenceCacheTest {
+    @Mock
+    NetworkUtils networkUtils;
+
+    PassivePresenceCache subject;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        subject = new PassivePresenceCache();
+        subject.networkUtils = networkUtils;
+    }
+
+    @Test
+    public void dhcpSightingIsFresh() throws InterruptedException {
+        when(networkUtils.getReachableNeighbours()).thenReturn(Collections.emptyMap());
+        subject.recordSighting("10.1.2.3", "aa:bb:cc:dd:ee:ff", PresenceDetectionType.DHCP_REQUEST);
+
+        PassivePresenceCache.Sighting sighting = subject.getFreshSighting("10.1.2.3", 60000);
+        assertNotNull(sighting);
+        assertThat(sighting.getHardwareAddress(), is("aa:bb:cc:dd:ee:ff"));
+        assertThat(sighting.getType(), is(PresenceDetectionType.DHCP_REQUEST));
+
+        Thread.sleep(20);
+        assertNull(subject.getFreshSighting("10.1.2.3", 10));
+        assertNull(subject.getFreshSighting("10.1.2.4", 60000));
+
+        assertThat(subject.getHits(), is(1L));
+        assertThat(subject.getMisses(), is(2L));
+    }
+
+    @Test
+    public void arpTableIsReadOnceForAllHosts() {
+        when(networkUtils.getReachableNeighbours())
+                .thenReturn(Collections.singletonMap("10.1.2.5", "11:22:33:44:55:66"));
+
+        assertThat(subject.getFreshSighting("10.1.2.5", 60000).getType(), is(PresenceDetectionType.ARP_PING));
+        assertNull(subject.getFreshSighting("10.1.2.6", 60000));
+
+        verify(networkUtils, times(1)).getReachableNeighbours();
+    }
+
+    @Test
+    public void missingArpTableIsNotReadAgain() {
+        when(networkUtils.getReachableNeighbours()).thenReturn(null);
+        subject.recordSighting("10.1.2.3", null, PresenceDetectionType.DHCP_REQUEST);
+
+        assertNotNull(subject.getFreshSighting("10.1.2.3", 60000));
+        assertNotNull(subject.getFreshSighting("10.1.2.3", 60000));
+
+        verify(networkUtils, times(1)).getReachableNeighbours();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+
+/**
+ * Tests cases for {@see PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    @Mock
+    NetworkUtils networkUtils;
+
+    PresenceDetectionEngine subject;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        subject = new PresenceDetectionEngine();
+        subject.networkUtils = networkUtils;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void bulkPingCorrelatesReplies() throws Exception {
+        doAnswer(invocation -> {
+            Collection<String> hosts = (Collection<String>) invocation.getArguments()[0];
+            assertThat(hosts.size(), is(2));
+            ((BiConsumer<String, Double>) invocation.getArguments()[2]).accept("192.168.0.1", 12.0);
+            return null;
+        }).when(networkUtils).nativeBulkPing(anyObject(), anyInt(), anyObject());
+
+        CompletableFuture<Double> reachable = subject.bulkPing("192.168.0.1", 500);
+        CompletableFuture<Double> unreachable = subject.bulkPing("192.168.0.2", 1000);
+
+        assertThat(reachable.get(2, TimeUnit.SECONDS), is(12.0));
+        assertNull(unreachable.get(2, TimeUnit.SECONDS));
+        // Both hosts are pinged by one process with the largest timeout
+        verify(networkUtils, times(1)).nativeBulkPing(anyObject(), eq(1000), anyObject());
+    }
+
+    @Test
+    public void detectionExecutorShutdownOnlyAffectsOwnChecks() throws InterruptedException {
+        ExecutorService first = subject.newDetectionExecutor();
+        ExecutorService second = subject.newDetectionExecutor();
+        CompletableFuture<Boolean> secondCheck = new CompletableFuture<>();
+
+        first.execute(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        second.execute(() -> secondCheck.complete(true));
+
+        first.shutdownNow();
+        assertTrue(first.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(secondCheck.join());
+        assertFalse(second.isShutdown());
+    }
+
+    @Test
+    public void awaitTerminationReturnsPromptlyWithoutChecks() throws InterruptedException {
+        // A ping-only detection has no checks in its executor, the bulk ping result shuts it down
+        ExecutorService detection = subject.newDetectionExecutor();
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            detection.shutdownNow();
+        }).start();
+
+        long start = System.currentTimeMillis();
+        assertTrue(detection.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    public void bulkPingIsNotQueuedBehindBlockingChecks() throws Exception {
+        doNothing().when(networkUtils).nativeBulkPing(anyObject(), anyInt(), anyObject());
+        ExecutorService detection = subject.newDetectionExecutor();
+        for (int i = 0; i < PresenceDetectionEngine.MAX_THREADS * 2; i++) {
+            detection.execute(() -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ignored) {
+                }
+            });
+        }
+
+        CompletableFuture<Double> ping = subject.bulkPing("192.168.0.1", 500);
+
+        assertNull(ping.get(2, TimeUnit.SECONDS));
+        detection.shutdownNow();
+    }
+}
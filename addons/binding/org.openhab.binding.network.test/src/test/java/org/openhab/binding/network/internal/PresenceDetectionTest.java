@@ -173,6 +173,24 @@ public class PresenceDetectionTest {
         verify(callback, times(2)).accept(anyObject());
     }
 
+    @Test
+    public void passiveSightingSkipsProbes() {
+        PassivePresenceCache passiveCache = mock(PassivePresenceCache.class);
+        subject.passivePresenceCache = passiveCache;
+        subject.setUsePassivePresence(true);
+        PassivePresenceCache.Sighting sighting = new PassivePresenceCache.Sighting(null, System.currentTimeMillis(),
+                PresenceDetectionType.DHCP_REQUEST);
+        when(passiveCache.getFreshSighting(eq("127.0.0.1"), anyLong())).thenReturn(sighting);
+
+        assertTrue(subject.performPresenceDetection(true));
+
+        verify(subject, times(0)).getThreadsFor(anyInt());
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertTrue(capture.getValue().isReachable());
+        assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("DHCP_REQUEST"));
+    }
+
     @Test
     public void reuseValueTests() throws InterruptedException, IOException {
         final long START_TIME = 1000L;
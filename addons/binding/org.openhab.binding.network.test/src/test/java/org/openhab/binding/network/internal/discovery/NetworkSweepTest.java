@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases and a benchmark for {@see NetworkSweep} against the local loopback range.
+ *
+ * @author agent - Initial contribution
+ */
+public class NetworkSweepTest {
+    ServerSocket serverSocket;
+    List<String> loopbackIPs = new ArrayList<>();
+    Set<String> reachableServices = ConcurrentHashMap.newKeySet();
+
+    NetworkSweep.Listener listener = new NetworkSweep.Listener() {
+        @Override
+        public void hostReachable(String ip) {
+        }
+
+        @Override
+        public void serviceReachable(String ip, int tcpPort) {
+            reachableServices.add(ip + ":" + tcpPort);
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        for (int i = 1; i < 255; i++) {
+            loopbackIPs.add("127.0.0." + i);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        serverSocket.close();
+    }
+
+    @Test
+    public void sweepFindsOpenPort() throws IOException {
+        int port = serverSocket.getLocalPort();
+        NetworkSweep sweep = new NetworkSweep(Collections.singleton(port), 500, 100000, false, listener);
+
+        long start = System.nanoTime();
+        sweep.sweep(loopbackIPs);
+        long elapsedInMS = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(sweep.getProbes(), is(loopbackIPs.size()));
+        assertTrue(reachableServices.contains("127.0.0.1:" + port));
+        // All connects are pending at the same time, so the whole range takes about one timeout at most
+        assertTrue("Sweep took " + elapsedInMS + " ms", elapsedInMS < 3000);
+    }
+
+    @Test
+    public void sweepRespectsProbeBudget() throws IOException {
+        NetworkSweep sweep = new NetworkSweep(Collections.singleton(serverSocket.getLocalPort()), 500, 500, false,
+                listener);
+
+        long start = System.nanoTime();
+        sweep.sweep(loopbackIPs);
+        long elapsedInMS = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 254 probes with 500 probes per second take at least half a second
+        assertTrue("Sweep took " + elapsedInMS + " ms", elapsedInMS >= 450);
+    }
+}
@@ -177,6 +177,7 @@ public class NetworkHandler extends BaseThingHandler implements PresenceDetectio
             presenceDetection.setUseDhcpSniffing(configuration.allowDHCPlisten);
             presenceDetection.setUseIcmpPing(configuration.allowSystemPings);
             presenceDetection.setUseArpPing(true, configuration.arpPingToolPath);
+            presenceDetection.setUsePassivePresence(configuration.usePassivePresence);
         }
 
         this.retries = handlerConfiguration.retry.intValue();
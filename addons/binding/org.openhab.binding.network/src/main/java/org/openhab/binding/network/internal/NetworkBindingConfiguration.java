@@ -23,11 +23,17 @@ public class NetworkBindingConfiguration {
     public Boolean allowDHCPlisten = true;
     public BigDecimal cacheDeviceStateTimeInMS = BigDecimal.valueOf(2000);
     public String arpPingToolPath = "arping";
+    public Boolean usePassivePresence = true;
+    public Boolean discoverySweepMode = false;
+    public BigDecimal discoveryProbesPerSecond = BigDecimal.valueOf(1000);
 
     public void update(@NonNull NetworkBindingConfiguration newConfiguration) {
         this.allowSystemPings = newConfiguration.allowSystemPings;
         this.allowDHCPlisten = newConfiguration.allowDHCPlisten;
         this.cacheDeviceStateTimeInMS = newConfiguration.cacheDeviceStateTimeInMS;
         this.arpPingToolPath = newConfiguration.arpPingToolPath;
+        this.usePassivePresence = newConfiguration.usePassivePresence;
+        this.discoverySweepMode = newConfiguration.discoverySweepMode;
+        this.discoveryProbesPerSecond = newConfiguration.discoveryProbesPerSecond;
     }
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton which records the last time a host has been seen on the network without any active probe.
+ * Sightings are recorded from DHCP requests, received by the DHCP listener, and from the reachable neighbours of
+ * the ARP table of the operating system, where available.
+ *
+ * A {@link PresenceDetection} can skip its active probes, as long as the passive sighting of its host is fresh.
+ * Hits and misses are counted to show the number of saved detections.
+ *
+ * @author agent - Initial contribution
+ */
+public class PassivePresenceCache {
+    static final long ARP_TABLE_REFRESH_INTERVAL_MS = 10000;
+
+    private static PassivePresenceCache instance;
+
+    private final Logger logger = LoggerFactory.getLogger(PassivePresenceCache.class);
+    private final Map<String, Sighting> sightings = new ConcurrentHashMap<>();
+    NetworkUtils networkUtils = new NetworkUtils();
+
+    private boolean arpTableAvailable = true;
+    private long lastArpTableRead;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * A passive sighting of a host.
+     */
+    public static class Sighting {
+        private final String hardwareAddress;
+        private final long timestamp;
+        private final PresenceDetectionType type;
+
+        Sighting(String hardwareAddress, long timestamp, PresenceDetectionType type) {
+            this.hardwareAddress = hardwareAddress;
+            this.timestamp = timestamp;
+            this.type = type;
+        }
+
+        /**
+         * Return the hardware address in the form "aa:bb:cc:dd:ee:ff" or null if unknown.
+         */
+        public String getHardwareAddress() {
+            return hardwareAddress;
+        }
+
+        /**
+         * Return the time of the sighting based on {@link System.currentTimeMillis()}.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Return the source of the sighting.
+         */
+        public PresenceDetectionType getType() {
+            return type;
+        }
+    }
+
+    public static synchronized PassivePresenceCache getInstance() {
+        if (instance == null) {
+            instance = new PassivePresenceCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Record a passive sighting of a host.
+     *
+     * @param ipAddress The IP address of the host.
+     * @param hardwareAddress The hardware address of the host or null if unknown.
+     * @param type The source of the sighting.
+     */
+    public void recordSighting(String ipAddress, String hardwareAddress, PresenceDetectionType type) {
+        sightings.put(ipAddress, new Sighting(hardwareAddress, System.currentTimeMillis(), type));
+    }
+
+    /**
+     * Return the passive sighting of a host, if it is not older than the given age. The ARP table of the
+     * operating system is read, if it has not been read recently.
+     *
+     * @param ipAddress The IP address of the host.
+     * @param maxAgeInMS The maximum age of the sighting in milliseconds.
+     * @return The sighting or null if the host has not been seen passively within the given time.
+     */
+    public Sighting getFreshSighting(String ipAddress, long maxAgeInMS) {
+        refreshArpTable();
+
+        Sighting sighting = sightings.get(ipAddress);
+        if (sighting != null && System.currentTimeMillis() - sighting.getTimestamp() <= maxAgeInMS) {
+            hits.incrementAndGet();
+            return sighting;
+        }
+        if (misses.incrementAndGet() % 100 == 0) {
+            logger.debug("Passive presence cache: {} hits, {} misses", hits.get(), misses.get());
+        }
+        return null;
+    }
+
+    /**
+     * Record all reachable neighbours of the ARP table as sightings. The table is read at most every
+     * {@link #ARP_TABLE_REFRESH_INTERVAL_MS} milliseconds with a single process for all hosts.
+     */
+    private void refreshArpTable() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (!arpTableAvailable || now - lastArpTableRead < ARP_TABLE_REFRESH_INTERVAL_MS) {
+                return;
+            }
+            lastArpTableRead = now;
+        }
+
+        Map<String, String> neighbours = networkUtils.getReachableNeighbours();
+        if (neighbours == null) {
+            logger.debug("ARP table not available, using DHCP requests only");
+            synchronized (this) {
+                arpTableAvailable = false;
+            }
+            return;
+        }
+        for (Map.Entry<String, String> neighbour : neighbours.entrySet()) {
+            recordSighting(neighbour.getKey(), neighbour.getValue(), PresenceDetectionType.ARP_PING);
+        }
+    }
+
+    /**
+     * Return the number of lookups with a fresh sighting, each of them saved an active presence detection.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Return the number of lookups without a fresh sighting.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -15,8 +15,8 @@ import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -41,13 +41,17 @@ import org.slf4j.LoggerFactory;
 public class PresenceDetection implements IPRequestReceivedCallback {
     public static final double NOT_REACHABLE = -1;
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
+    PassivePresenceCache passivePresenceCache = PassivePresenceCache.getInstance();
     private Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
     private boolean useDHCPsniffing = false;
+    private boolean usePassivePresence = false;
     private ArpPingUtilEnum arpPingMethod = null;
     private String arpPingUtilPath = "arping";
     private IpPingMethodEnum pingMethod = null;
+    private boolean useBulkPing;
     private boolean iosDevice;
     private Set<Integer> tcpPorts = new HashSet<Integer>();
 
@@ -63,6 +67,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private ScheduledFuture<?> refreshJob;
     private InetAddress destination;
     ExecutorService executorService;
+    private CompletableFuture<Double> bulkPing;
     private String dhcpState = "off";
     Integer currentCheck = 0;
     int detectionChecks;
@@ -111,6 +116,16 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.useDHCPsniffing = enable;
     }
 
+    /**
+     * Enables or disables the passive presence cache. If enabled, the active probes are skipped
+     * as long as the host has been seen passively within the refresh interval.
+     *
+     * @param enable Enable or disable the passive presence cache
+     */
+    public void setUsePassivePresence(boolean enable) {
+        this.usePassivePresence = enable;
+    }
+
     public void setRefreshInterval(long refreshInterval) {
         this.refreshIntervalInMS = refreshInterval;
     }
@@ -121,7 +136,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     /**
      * Sets the ping method. This method will perform a feature test. If SYSTEM_PING
-     * does not work on this system, JAVA_PING will be used instead.
+     * does not work on this system, JAVA_PING will be used instead. If the fping utility
+     * is available, system pings are sent together with the pings of other hosts.
      *
      * @param useSystemPing Set to true to use a system ping method, false to use java ping and null to disable ICMP
      *            pings.
@@ -134,6 +150,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         } else {
             pingMethod = IpPingMethodEnum.JAVA_PING;
         }
+        useBulkPing = pingMethod != null && pingMethod != IpPingMethodEnum.JAVA_PING
+                && networkUtils.determineBulkPingSupport();
     }
 
     /**
@@ -202,14 +220,20 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
+    /**
+     * Return an executor for the checks of a presence detection. The checks are executed by the
+     * bounded thread pool of the {@link PresenceDetectionEngine}, which is shared by all detections.
+     *
+     * @param threadCount The number of checks of the presence detection
+     */
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return engine.newDetectionExecutor();
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are executed by the thread pool
+     * shared by all detections, system pings are sent in bulk if possible.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -234,6 +258,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return false;
         }
 
+        if (usePassivePresence && submitPassiveSighting()) {
+            return true;
+        }
+
         Set<String> interfaceNames = null;
 
         currentCheck = 0;
@@ -272,7 +300,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
 
         // ICMP ping
-        if (pingMethod != null) {
+        if (pingMethod != null && useBulkPing) {
+            performBulkPing();
+        } else if (pingMethod != null) {
             executorService.execute(() -> {
                 if (pingMethod != IpPingMethodEnum.JAVA_PING) {
                     Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
@@ -291,6 +321,25 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return true;
     }
 
+    /**
+     * Submits a reachable result without any active probe, if the host has been seen
+     * passively within the refresh interval.
+     *
+     * @return Return true if a fresh passive sighting has been submitted.
+     */
+    private boolean submitPassiveSighting() {
+        PassivePresenceCache.Sighting sighting = passivePresenceCache.getFreshSighting(destination.getHostAddress(),
+                refreshIntervalInMS);
+        if (sighting == null) {
+            return false;
+        }
+        logger.trace("Skip presence detection for {}, seen passively by {}", hostname, sighting.getType());
+        PresenceDetectionValue v = updateReachableValue(sighting.getType(), 0);
+        updateListener.partialDetectionResult(v);
+        updateListener.finalDetectionResult(v);
+        return true;
+    }
+
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
@@ -305,6 +354,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         // Finish the detection process
         executorService.shutdownNow();
         executorService = null;
+        if (bulkPing != null) {
+            bulkPing.cancel(false);
+            bulkPing = null;
+        }
         detectionChecks = 0;
 
         PresenceDetectionValue v;
@@ -350,8 +403,16 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             submitFinalResult();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            executorService.shutdownNow();
-            executorService = null;
+            synchronized (this) {
+                if (executorService != null) {
+                    executorService.shutdownNow();
+                    executorService = null;
+                }
+                if (bulkPing != null) {
+                    bulkPing.cancel(false);
+                    bulkPing = null;
+                }
+            }
         }
     }
 
@@ -383,9 +444,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     protected void performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPorts);
         try {
+            engine.recordProbe();
             double pingTime = System.nanoTime();
             if (networkUtils.servicePing(destination.getHostAddress(), tcpPort, timeoutInMS)) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+                engine.recordLatency(latency);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
                 v.addReachableTcpService(tcpPort);
                 updateListener.partialDetectionResult(v);
@@ -411,10 +474,12 @@ public class PresenceDetection implements IPRequestReceivedCallback {
                 networkUtils.wakeUpIOS(destination);
                 Thread.sleep(50);
             }
+            engine.recordProbe();
             double pingTime = System.nanoTime();
             if (networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, destination.getHostAddress(),
                     timeoutInMS)) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+                engine.recordLatency(latency);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
                 updateListener.partialDetectionResult(v);
             }
@@ -434,9 +499,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     protected void performJavaPing() {
         try {
             logger.trace("Perform java ping presence detection for {}", hostname);
+            engine.recordProbe();
             double pingTime = System.nanoTime();
             if (destination.isReachable(timeoutInMS)) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+                engine.recordLatency(latency);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
                 updateListener.partialDetectionResult(v);
             }
@@ -448,9 +515,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     protected void performSystemPing() {
         try {
             logger.trace("Perform native ping presence detection for {}", hostname);
+            engine.recordProbe();
             double pingTime = System.nanoTime();
             if (networkUtils.nativePing(pingMethod, destination.getHostAddress(), timeoutInMS)) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+                engine.recordLatency(latency);
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
                 updateListener.partialDetectionResult(v);
             }
@@ -461,6 +530,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
     }
 
+    /**
+     * Performs a system ping together with the pings of other presence detections. The result
+     * is processed asynchronously as soon as the reply of this host is received.
+     */
+    protected void performBulkPing() {
+        logger.trace("Perform bulk ping presence detection for {}", hostname);
+        engine.recordProbe();
+        final CompletableFuture<Double> ping = engine.bulkPing(destination.getHostAddress(), timeoutInMS);
+        synchronized (this) {
+            bulkPing = ping;
+        }
+        ping.whenComplete((latency, e) -> {
+            synchronized (this) {
+                // Ignore a ping of an already finished detection
+                if (bulkPing != ping) {
+                    return;
+                }
+            }
+            if (latency != null) {
+                engine.recordLatency(latency);
+                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
+                updateListener.partialDetectionResult(v);
+            }
+            checkIfFinished();
+        });
+    }
+
     @Override
     public void dhcpRequestReceived(String ipAddress) {
         PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.DHCP_REQUEST, 0);
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton shared by all {@link PresenceDetection} objects. All detection checks are executed by one bounded
+ * thread pool, instead of a new thread pool per detection. ICMP pings of all hosts, which are issued within a short
+ * time window, are sent by a single fping process and the replies are passed to the waiting detections as soon as
+ * they arrive. Bulk pings run on their own threads, so they are not queued behind blocking checks.
+ *
+ * The engine also collects the probe rate and the average latency of all checks.
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngine {
+    static final int MAX_THREADS = 32;
+    static final int BULK_PING_DELAY_MS = 50;
+    static final long STATISTICS_LOG_INTERVAL_MS = 60000;
+
+    private static PresenceDetectionEngine instance;
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService bulkPingExecutor;
+    NetworkUtils networkUtils = new NetworkUtils();
+
+    /// Hosts waiting for the next bulk ping and the largest requested timeout
+    private Map<String, List<CompletableFuture<Double>>> pendingPings = new HashMap<>();
+    private int pendingTimeoutInMS;
+
+    /// Statistics
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong successfulProbes = new AtomicLong();
+    private final AtomicLong latencySumInMS = new AtomicLong();
+    private final AtomicLong lastStatisticsLog = new AtomicLong(startTime);
+
+    PresenceDetectionEngine() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "presenceDetection-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        AtomicInteger bulkPingThreadNumber = new AtomicInteger();
+        bulkPingExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "presenceDetectionBulkPing-" + bulkPingThreadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized PresenceDetectionEngine getInstance() {
+        if (instance == null) {
+            instance = new PresenceDetectionEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Return an executor for the checks of one presence detection. The checks are executed by the shared thread pool.
+     * Shutting down the returned executor cancels the checks of this detection only.
+     */
+    public ExecutorService newDetectionExecutor() {
+        return new DetectionExecutor();
+    }
+
+    /**
+     * Ping a host with the next bulk ping. The bulk ping is sent shortly after the first host has been added, to
+     * collect the hosts of other detections which are performed at the same time.
+     *
+     * @param hostAddress The IPv4 or IPv6 address.
+     * @param timeoutInMS Timeout in milliseconds.
+     * @return A future, which is completed with the latency in milliseconds or with null, if the host didn't respond.
+     */
+    public CompletableFuture<Double> bulkPing(String hostAddress, int timeoutInMS) {
+        CompletableFuture<Double> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (pendingPings.isEmpty()) {
+                bulkPingExecutor.execute(this::performBulkPing);
+            }
+            pendingPings.computeIfAbsent(hostAddress, k -> new ArrayList<>()).add(future);
+            pendingTimeoutInMS = Math.max(pendingTimeoutInMS, timeoutInMS);
+        }
+        return future;
+    }
+
+    private void performBulkPing() {
+        Map<String, List<CompletableFuture<Double>>> pings;
+        int timeoutInMS;
+        try {
+            Thread.sleep(BULK_PING_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            pings = pendingPings;
+            timeoutInMS = pendingTimeoutInMS;
+            pendingPings = new HashMap<>();
+            pendingTimeoutInMS = 0;
+        }
+
+        long start = System.nanoTime();
+        Set<String> aliveHosts = new HashSet<>();
+        try {
+            networkUtils.nativeBulkPing(pings.keySet(), timeoutInMS, (hostAddress, latency) -> {
+                List<CompletableFuture<Double>> futures = pings.get(hostAddress);
+                if (futures != null && aliveHosts.add(hostAddress)) {
+                    futures.forEach(future -> future.complete(latency));
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Failed to execute a bulk ping for {} hosts", pings.size(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Complete the hosts which have not responded
+        pings.values().forEach(futures -> futures.forEach(future -> future.complete(null)));
+        logger.trace("Bulk ping of {} hosts finished in {} ms, {} reachable", pings.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), aliveHosts.size());
+    }
+
+    /**
+     * Record a check for the statistics.
+     */
+    public void recordProbe() {
+        probes.incrementAndGet();
+
+        long now = System.currentTimeMillis();
+        long lastLog = lastStatisticsLog.get();
+        if (now - lastLog >= STATISTICS_LOG_INTERVAL_MS && lastStatisticsLog.compareAndSet(lastLog, now)) {
+            logger.debug("Presence detection: {} probes per minute, average latency {} ms, {} queued checks",
+                    String.format("%.1f", getProbesPerMinute()), String.format("%.1f", getAverageLatency()),
+                    executor.getQueue().size());
+        }
+    }
+
+    /**
+     * Record the latency of a successful check for the statistics.
+     *
+     * @param latency The latency in milliseconds.
+     */
+    public void recordLatency(double latency) {
+        successfulProbes.incrementAndGet();
+        latencySumInMS.addAndGet(Math.round(latency));
+    }
+
+    /**
+     * Return the average number of checks per minute since the engine has been created.
+     */
+    public double getProbesPerMinute() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        return elapsed <= 0 ? 0.0 : probes.get() * (double) TimeUnit.MINUTES.toMillis(1) / elapsed;
+    }
+
+    /**
+     * Return the average latency of all successful checks in milliseconds.
+     */
+    public double getAverageLatency() {
+        long count = successfulProbes.get();
+        return count == 0 ? 0.0 : latencySumInMS.get() / (double) count;
+    }
+
+    /**
+     * Executes the checks of a single presence detection on the shared thread pool and keeps track of them, so they
+     * can be awaited and cancelled without affecting other detections.
+     */
+    private class DetectionExecutor extends AbstractExecutorService {
+        private final Set<FutureTask<?>> tasks = new HashSet<>();
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            FutureTask<Void> task = new FutureTask<Void>(() -> {
+                // Checks may rename the thread, restore the name for the next task of the pool
+                String name = Thread.currentThread().getName();
+                try {
+                    command.run();
+                } finally {
+                    Thread.currentThread().setName(name);
+                }
+            }, null) {
+                @Override
+                protected void done() {
+                    taskDone(this);
+                }
+            };
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Presence detection already finished");
+                }
+                tasks.add(task);
+            }
+            executor.execute(task);
+        }
+
+        private synchronized void taskDone(FutureTask<?> task) {
+            tasks.remove(task);
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            notifyAll();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<FutureTask<?>> cancelled;
+            synchronized (this) {
+                shutdown = true;
+                cancelled = new ArrayList<>(tasks);
+                notifyAll();
+            }
+            cancelled.forEach(task -> task.cancel(true));
+            return new ArrayList<>();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -85,6 +86,7 @@ class DHCPPacket {
     }
 
     private byte op;
+    private byte[] chaddr;
     private Map<Byte, byte[]> options;
 
     /**
@@ -129,7 +131,7 @@ class DHCPPacket {
         // parse static part of packet
         this.op = inStream.readByte();
         inStream.readByte(); // read hardware type (ETHERNET)
-        inStream.readByte(); // read hardware address length (6 bytes)
+        int hlen = inStream.readUnsignedByte(); // read hardware address length (6 bytes)
         inStream.readByte(); // read hops
         inStream.readInt(); // read transaction id
         inStream.readShort(); // read secsonds elapsed
@@ -139,6 +141,9 @@ class DHCPPacket {
         inStream.readFully(dummy, 0, 4); // siaddr
         inStream.readFully(dummy, 0, 4); // giaddr
         inStream.readFully(dummy, 0, 16); // chaddr
+        if (hlen > 0 && hlen <= 16) {
+            this.chaddr = Arrays.copyOf(dummy, hlen);
+        }
         inStream.readFully(dummy, 0, 64); // sname
         inStream.readFully(dummy, 0, 128); // file
 
@@ -212,6 +217,23 @@ class DHCPPacket {
         return opt[0];
     }
 
+    /**
+     * Returns the client hardware address (chaddr field) in the form "aa:bb:cc:dd:ee:ff" or null if not present.
+     */
+    String getHardwareAddress() {
+        if (chaddr == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (byte b : chaddr) {
+            if (builder.length() > 0) {
+                builder.append(':');
+            }
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
     /**
      * Returns the requested IP address of a BOOTREQUEST packet.
      */
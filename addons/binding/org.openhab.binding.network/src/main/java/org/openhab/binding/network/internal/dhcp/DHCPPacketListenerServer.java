@@ -17,6 +17,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 
+import org.openhab.binding.network.internal.PassivePresenceCache;
+import org.openhab.binding.network.internal.PresenceDetectionType;
 import org.openhab.binding.network.internal.dhcp.DHCPPacket.BadPacketException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +78,8 @@ public class DHCPPacketListenerServer extends Thread {
                 return;
             }
         }
+        PassivePresenceCache.getInstance().recordSighting(requestedAddress.getHostAddress(),
+                request.getHardwareAddress(), PresenceDetectionType.DHCP_REQUEST);
         listener.dhcpRequestReceived(requestedAddress.getHostAddress());
     }
 
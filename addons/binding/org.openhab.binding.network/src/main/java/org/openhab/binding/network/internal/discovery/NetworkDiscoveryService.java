@@ -10,6 +10,7 @@ package org.openhab.binding.network.internal.discovery;
 
 import static org.openhab.binding.network.NetworkBindingConstants.*;
 
+import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.List;
@@ -59,6 +60,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     private Set<Integer> tcp_service_ports = Sets.newHashSet(80, 548, 554, 1025);
     private Integer scannedIPcount;
     private ExecutorService executorService = null;
+    private NetworkSweep sweep = null;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     NetworkUtils networkUtils = new NetworkUtils();
 
@@ -120,6 +122,10 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         logger.trace("Starting Network Device Discovery");
 
         final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
+        if (configuration.discoverySweepMode) {
+            startSweep(networkIPs);
+            return;
+        }
         executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
         scannedIPcount = 0;
 
@@ -154,9 +160,45 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         }
     }
 
+    /**
+     * Sweeps all IPs with a single thread, non-blocking TCP connects and bulk ICMP pings.
+     * Found devices are submitted as soon as they respond.
+     */
+    private void startSweep(Set<String> networkIPs) {
+        final NetworkSweep networkSweep = new NetworkSweep(tcp_service_ports, PING_TIMEOUT_IN_MS,
+                configuration.discoveryProbesPerSecond.intValue(),
+                configuration.allowSystemPings && networkUtils.determineBulkPingSupport(), new NetworkSweep.Listener() {
+                    @Override
+                    public void hostReachable(String ip) {
+                        newPingDevice(ip);
+                    }
+
+                    @Override
+                    public void serviceReachable(String ip, int tcpPort) {
+                        newServiceDevice(ip, tcpPort);
+                    }
+                });
+        sweep = networkSweep;
+        executorService = Executors.newSingleThreadExecutor();
+        executorService.execute(() -> {
+            Thread.currentThread().setName("Discovery sweep");
+            try {
+                networkSweep.sweep(networkIPs);
+                logger.trace("Sweep of {} IPs successful", networkIPs.size());
+            } catch (IOException e) {
+                logger.warn("Network sweep failed", e);
+            }
+            stopScan();
+        });
+    }
+
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
+        if (sweep != null) {
+            sweep.cancel();
+            sweep = null;
+        }
         if (executorService == null) {
             return;
         }
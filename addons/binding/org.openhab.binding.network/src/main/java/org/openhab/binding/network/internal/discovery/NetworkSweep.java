@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sweeps a range of IP addresses with a single thread. TCP service ports are probed with non-blocking connects, which
+ * are all handled by one selector, and ICMP pings are sent in bulk by the {@link PresenceDetectionEngine}. The probes
+ * are paced to not exceed a configured number of probes per second and the results are reported as soon as they
+ * arrive.
+ *
+ * In contrast to a {@link org.openhab.binding.network.internal.PresenceDetection}, no ARP pings are performed.
+ *
+ * @author agent - Initial contribution
+ */
+class NetworkSweep {
+    /**
+     * Implement this callback to be notified of reachable devices found by a sweep.
+     */
+    interface Listener {
+        /**
+         * A device responded to a ping or refused a TCP connection.
+         */
+        void hostReachable(String ip);
+
+        /**
+         * A device accepted a TCP connection on the given port.
+         */
+        void serviceReachable(String ip, int tcpPort);
+    }
+
+    static final int MAX_PENDING_CONNECTS = 512;
+
+    private final Logger logger = LoggerFactory.getLogger(NetworkSweep.class);
+    private final Set<Integer> tcpPorts;
+    private final int timeoutInMS;
+    private final int probesPerSecond;
+    private final boolean useBulkPing;
+    private final Listener listener;
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
+
+    private volatile boolean cancelled;
+    private int probes;
+
+    /**
+     * Creates a sweep.
+     *
+     * @param tcpPorts The TCP ports to probe on each device.
+     * @param timeoutInMS The timeout of each probe in milliseconds.
+     * @param probesPerSecond The maximum number of probes per second. Each ping and each TCP port is a probe.
+     * @param useBulkPing Set to true if ICMP pings should be sent. Only bulk pings are supported by a sweep.
+     * @param listener The callback for reachable devices.
+     */
+    NetworkSweep(Set<Integer> tcpPorts, int timeoutInMS, int probesPerSecond, boolean useBulkPing,
+            Listener listener) {
+        this.tcpPorts = tcpPorts;
+        this.timeoutInMS = timeoutInMS;
+        this.probesPerSecond = Math.max(1, probesPerSecond);
+        this.useBulkPing = useBulkPing;
+        this.listener = listener;
+    }
+
+    /**
+     * Cancels a running sweep. The sweep returns after the next select.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the number of probes sent by the last sweep.
+     */
+    int getProbes() {
+        return probes;
+    }
+
+    /**
+     * Sweeps the given IP addresses and returns after all probes are finished or timed out.
+     *
+     * @param ips The IP addresses to probe.
+     * @throws IOException If the selector cannot be opened.
+     */
+    void sweep(Collection<String> ips) throws IOException {
+        cancelled = false;
+        probes = 0;
+        long start = System.nanoTime();
+        long probeIntervalInNS = TimeUnit.SECONDS.toNanos(1) / probesPerSecond;
+        long nextProbe = start;
+        List<CompletableFuture<?>> pings = new ArrayList<>();
+
+        try (Selector selector = Selector.open()) {
+            for (String ip : ips) {
+                if (useBulkPing) {
+                    nextProbe = waitForNextProbe(selector, nextProbe, probeIntervalInNS);
+                    pings.add(engine.bulkPing(ip, timeoutInMS).thenAccept(latency -> {
+                        if (latency != null) {
+                            listener.hostReachable(ip);
+                        }
+                    }));
+                }
+                for (int tcpPort : tcpPorts) {
+                    nextProbe = waitForNextProbe(selector, nextProbe, probeIntervalInNS);
+                    while (!cancelled && selector.keys().size() >= MAX_PENDING_CONNECTS) {
+                        processSelector(selector, timeoutInMS);
+                    }
+                    connect(selector, ip, tcpPort);
+                }
+                if (cancelled) {
+                    break;
+                }
+            }
+
+            // Wait for the remaining connects
+            while (!cancelled && !selector.keys().isEmpty()) {
+                processSelector(selector, timeoutInMS);
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+
+        // Pings are finished after their timeout at the latest
+        try {
+            CompletableFuture.allOf(pings.toArray(new CompletableFuture<?>[pings.size()])).get(timeoutInMS * 2,
+                    TimeUnit.MILLISECONDS);
+        } catch (Exception ignored) {
+        }
+
+        long elapsed = System.nanoTime() - start;
+        logger.debug("Sweep of {} IPs with {} probes took {} ms ({} probes per second)", ips.size(), probes,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(probes * 1e9 / Math.max(1, elapsed)));
+    }
+
+    /**
+     * Processes finished connects until the next probe may be sent.
+     */
+    private long waitForNextProbe(Selector selector, long nextProbe, long probeIntervalInNS) throws IOException {
+        long waitInMS = TimeUnit.NANOSECONDS.toMillis(nextProbe - System.nanoTime());
+        while (!cancelled && waitInMS > 0) {
+            processSelector(selector, waitInMS);
+            waitInMS = TimeUnit.NANOSECONDS.toMillis(nextProbe - System.nanoTime());
+        }
+        probes++;
+        // Do not allow a burst after a slow period
+        return Math.max(nextProbe, System.nanoTime() - probeIntervalInNS) + probeIntervalInNS;
+    }
+
+    private void connect(Selector selector, String ip, int tcpPort) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            Probe probe = new Probe(ip, tcpPort, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMS));
+            if (channel.connect(new InetSocketAddress(ip, tcpPort))) {
+                channel.close();
+                listener.serviceReachable(ip, tcpPort);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+        } catch (ConnectException e) {
+            closeQuietly(channel);
+            listener.hostReachable(ip);
+        } catch (IOException | RuntimeException e) {
+            logger.trace("Cannot connect to {}:{}", ip, tcpPort, e);
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Waits for finished connects and closes timed out connects.
+     */
+    private void processSelector(Selector selector, long timeoutInMS) throws IOException {
+        selector.select(Math.max(1, timeoutInMS));
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            SocketChannel channel = (SocketChannel) key.channel();
+            Probe probe = (Probe) key.attachment();
+            try {
+                if (channel.finishConnect()) {
+                    listener.serviceReachable(probe.ip, probe.tcpPort);
+                }
+            } catch (ConnectException e) {
+                // Connection refused, there is a device on the other end though
+                listener.hostReachable(probe.ip);
+            } catch (IOException e) {
+                // No route to host or similar
+            }
+            key.cancel();
+            closeQuietly(channel);
+        }
+
+        long now = System.nanoTime();
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && ((Probe) key.attachment()).deadline - now < 0) {
+                key.cancel();
+                closeQuietly(key.channel());
+            }
+        }
+        // Removes the cancelled keys from the key set
+        selector.selectNow();
+    }
+
+    private void closeQuietly(Channel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static class Probe {
+        final String ip;
+        final int tcpPort;
+        final long deadline;
+
+        Probe(String ip, int tcpPort, long deadline) {
+            this.ip = ip;
+            this.tcpPort = tcpPort;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -8,7 +8,9 @@
  */
 package org.openhab.binding.network.internal.utils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.ConnectException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
@@ -22,11 +24,19 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
@@ -39,6 +49,9 @@ import org.eclipse.smarthome.io.net.exec.ExecUtil;
  * @author David Graeff <david.graeff@web.de>
  */
 public class NetworkUtils {
+    private static final Pattern FPING_ALIVE = Pattern.compile("^(\\S+) is alive \\(([\\d.]+) ms\\)");
+    private static final Pattern NEIGHBOUR_ENTRY = Pattern.compile("^(\\S+) dev \\S+ lladdr (\\S+)");
+
     /**
      * Gets every IPv4 Address on each Interface except the loopback
      * The Address format is ip/subnet
@@ -259,6 +272,87 @@ public class NetworkUtils {
         return proc.waitFor() == 0;
     }
 
+    /**
+     * Return true if the fping utility is available, which can ping many hosts with a single process.
+     * It is not available on Windows.
+     */
+    public boolean determineBulkPingSupport() {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            return false;
+        }
+        String result = ExecUtil.executeCommandLineAndWaitResponse("fping -v", 100);
+        return StringUtils.isNotBlank(result) && result.contains("Version");
+    }
+
+    /**
+     * Use the fping utility to ping many hosts at once with a single process. The replies are reported as soon as
+     * they arrive.
+     *
+     * @param hostAddresses The IPv4 or IPv6 addresses. Must not be empty.
+     * @param timeoutInMS Timeout for each host in milliseconds.
+     * @param aliveCallback Called with the address and the latency in milliseconds for each host that responded.
+     * @throws IOException The fping command could probably not be found
+     */
+    public void nativeBulkPing(Collection<String> hostAddresses, int timeoutInMS,
+            BiConsumer<String, Double> aliveCallback) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("fping");
+        command.add("-e");
+        command.add("-r");
+        command.add("0");
+        command.add("-t");
+        command.add(String.valueOf(timeoutInMS));
+        command.addAll(hostAddresses);
+        Process proc = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        // fping prints a line per host, alive hosts are printed as soon as the reply is received
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = FPING_ALIVE.matcher(line);
+                if (matcher.find()) {
+                    aliveCallback.accept(matcher.group(1), Double.valueOf(matcher.group(2)));
+                }
+            }
+        } finally {
+            proc.destroy();
+        }
+        proc.waitFor();
+    }
+
+    /**
+     * Return the neighbours of the ARP/NDP table of the operating system, which have recently been confirmed to be
+     * reachable. Only supported on Linux, where the kernel confirms the reachability of a neighbour by received
+     * traffic.
+     *
+     * @return A map of IP addresses to hardware addresses or null if the table cannot be read.
+     */
+    public Map<String, String> getReachableNeighbours() {
+        if (!SystemUtils.IS_OS_LINUX) {
+            return null;
+        }
+        Map<String, String> neighbours = new HashMap<>();
+        try {
+            Process proc = new ProcessBuilder("ip", "neigh", "show", "nud", "reachable").redirectErrorStream(true)
+                    .start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = NEIGHBOUR_ENTRY.matcher(line);
+                    if (matcher.find()) {
+                        neighbours.put(matcher.group(1), matcher.group(2));
+                    }
+                }
+            }
+            return proc.waitFor() == 0 ? neighbours : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Reset interrupt flag
+            return null;
+        }
+    }
+
     public enum ArpPingUtilEnum {
         UNKNOWN_TOOL,
         IPUTILS_ARPING,
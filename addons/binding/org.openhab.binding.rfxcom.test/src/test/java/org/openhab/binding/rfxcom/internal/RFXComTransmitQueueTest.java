@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting1Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting2Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComMessageFactory;
+
+/**
+ * Test for RFXCom-binding
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComTransmitQueueTest {
+    private static final long NO_TIMEOUT = 60000;
+
+    private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private TestTransmitter transmitter = new TestTransmitter();
+
+    /**
+     * Records the transmitted data.
+     */
+    private static class TestTransmitter implements RFXComTransmitQueue.Transmitter {
+        private volatile boolean ready = true;
+        private List<byte[]> transmitted = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void transmit(byte[] data) {
+            transmitted.add(data.clone());
+        }
+
+        @Override
+        public void transmitFailed(IOException e) {
+            fail(e.getMessage());
+        }
+
+        byte seqNbr(int index) {
+            return transmitted.get(index)[3];
+        }
+
+        Object command(int index) throws RFXComException {
+            Object message = RFXComMessageFactory.createMessage(transmitted.get(index));
+            if (message instanceof RFXComLighting1Message) {
+                return ((RFXComLighting1Message) message).command;
+            }
+            return ((RFXComLighting2Message) message).command;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static RFXComLighting2Message lighting2(int sensorId, RFXComLighting2Message.Commands command) {
+        RFXComLighting2Message msg = new RFXComLighting2Message();
+        msg.subType = RFXComLighting2Message.SubType.AC;
+        msg.sensorId = sensorId;
+        msg.unitCode = 1;
+        msg.command = command;
+        msg.dimmingLevel = command == RFXComLighting2Message.Commands.SET_LEVEL ? (byte) 7 : 0;
+        return msg;
+    }
+
+    private static RFXComLighting1Message lighting1(RFXComLighting1Message.Commands command) {
+        RFXComLighting1Message msg = new RFXComLighting1Message();
+        msg.subType = RFXComLighting1Message.SubType.ARC;
+        msg.houseCode = 'A';
+        msg.unitCode = 1;
+        msg.command = command;
+        return msg;
+    }
+
+    /**
+     * Acknowledges the last transmitted message.
+     */
+    private void acknowledge(RFXComTransmitQueue queue) throws IOException {
+        assertTrue(queue.acknowledge(transmitter.seqNbr(transmitter.transmitted.size() - 1)));
+    }
+
+    @Test
+    public void testMessagesAreSentInOrderWhenReady() throws Exception {
+        RFXComTransmitQueue queue = new RFXComTransmitQueue(transmitter, scheduler, NO_TIMEOUT);
+        transmitter.ready = false;
+
+        queue.enqueue(lighting2(1, RFXComLighting2Message.Commands.ON));
+        queue.enqueue(lighting2(2, RFXComLighting2Message.Commands.OFF));
+        assertEquals(0, transmitter.transmitted.size());
+
+        transmitter.ready = true;
+        queue.send();
+        assertEquals(1, transmitter.transmitted.size());
+        assertEquals(RFXComLighting2Message.Commands.ON, transmitter.command(0));
+
+        acknowledge(queue);
+        assertEquals(2, transmitter.transmitted.size());
+        assertEquals(RFXComLighting2Message.Commands.OFF, transmitter.command(1));
+    }
+
+    @Test
+    public void testAbsoluteCommandsAreCoalesced() throws Exception {
+        RFXComTransmitQueue queue = new RFXComTransmitQueue(transmitter, scheduler, NO_TIMEOUT);
+
+        queue.enqueue(lighting2(1, RFXComLighting2Message.Commands.ON));
+        queue.enqueue(lighting2(1, RFXComLighting2Message.Commands.OFF));
+        queue.enqueue(lighting2(2, RFXComLighting2Message.Commands.ON));
+        queue.enqueue(lighting2(1, RFXComLighting2Message.Commands.SET_LEVEL));
+
+        acknowledge(queue);
+        acknowledge(queue);
+        acknowledge(queue);
+
+        assertEquals(3, transmitter.transmitted.size());
+        assertEquals(RFXComLighting2Message.Commands.ON, transmitter.command(0));
+        // The newest command to the first device keeps the place of the superseded one
+        assertEquals(RFXComLighting2Message.Commands.SET_LEVEL, transmitter.command(1));
+        assertEquals(RFXComLighting2Message.Commands.ON, transmitter.command(2));
+        assertEquals(1, queue.getCoalescedMessageCount());
+    }
+
+    @Test
+    public void testRelativeCommandsAreNotCoalesced() throws Exception {
+        RFXComTransmitQueue queue = new RFXComTransmitQueue(transmitter, scheduler, NO_TIMEOUT);
+
+        queue.enqueue(lighting1(RFXComLighting1Message.Commands.ON));
+        for (int i = 0; i < 3; i++) {
+            queue.enqueue(lighting1(RFXComLighting1Message.Commands.DIM));
+        }
+        for (int i = 0; i < 3; i++) {
+            acknowledge(queue);
+        }
+
+        assertEquals(4, transmitter.transmitted.size());
+        for (int i = 1; i < 4; i++) {
+            assertEquals(RFXComLighting1Message.Commands.DIM, transmitter.command(i));
+        }
+        assertEquals(0, queue.getCoalescedMessageCount());
+    }
+
+    @Test
+    public void testAbsoluteCommandIsNotMovedBeforeRelativeCommand() throws Exception {
+        RFXComTransmitQueue queue = new RFXComTransmitQueue(transmitter, scheduler, NO_TIMEOUT);
+
+        queue.enqueue(lighting1(RFXComLighting1Message.Commands.ON));
+        queue.enqueue(lighting1(RFXComLighting1Message.Commands.OFF));
+        queue.enqueue(lighting1(RFXComLighting1Message.Commands.BRIGHT));
+        queue.enqueue(lighting1(RFXComLighting1Message.Commands.ON));
+        for (int i = 0; i < 3; i++) {
+            acknowledge(queue);
+        }
+
+        assertEquals(4, transmitter.transmitted.size());
+        assertEquals(RFXComLighting1Message.Commands.OFF, transmitter.command(1));
+        assertEquals(RFXComLighting1Message.Commands.BRIGHT, transmitter.command(2));
+        assertEquals(RFXComLighting1Message.Commands.ON, transmitter.command(3));
+    }
+
+    @Test
+    public void testNextMessageIsSentAfterAckTimeout() throws Exception {
+        RFXComTransmitQueue queue = new RFXComTransmitQueue(transmitter, scheduler, 500);
+
+        queue.enqueue(lighting2(1, RFXComLighting2Message.Commands.ON));
+        queue.enqueue(lighting2(2, RFXComLighting2Message.Commands.ON));
+        queue.enqueue(lighting2(3, RFXComLighting2Message.Commands.ON));
+        assertEquals(1, transmitter.transmitted.size());
+
+        long end = System.currentTimeMillis() + 5000;
+        while (transmitter.transmitted.size() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, transmitter.transmitted.size());
+        assertEquals(1, queue.getAckTimeoutCount());
+
+        // A late response to the timed out message does not release the next message
+        assertFalse(queue.acknowledge(transmitter.seqNbr(0)));
+        assertEquals(2, transmitter.transmitted.size());
+
+        assertTrue(queue.acknowledge(transmitter.seqNbr(1)));
+        assertEquals(3, transmitter.transmitted.size());
+        assertNotEquals(transmitter.seqNbr(0), transmitter.seqNbr(1));
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.connector;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.rfxcom.internal.config.RFXComBridgeConfiguration;
+
+/**
+ * Test for RFXCom-binding
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComStreamReaderTest {
+    private static final String TEMPERATURE = "08500110000180BC69";
+    private static final String LIGHTING2 = "0B11000600109B520B000080";
+    private static final String WIND = "105601122F000087000000140000000079";
+    private static final String END_OF_DATA = "End of test data";
+
+    private TestConnector connector = new TestConnector();
+    private List<String> packets = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+
+    /**
+     * Returns the queued chunks, one per read, and fails when all chunks have been read.
+     */
+    private static class TestConnector extends RFXComBaseConnector {
+        private Queue<byte[]> chunks = new LinkedList<>();
+        private int reads;
+
+        @Override
+        public void connect(RFXComBridgeConfiguration device) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void sendMessage(byte[] data) {
+        }
+
+        @Override
+        int read(byte[] buffer, int offset, int length) throws IOException {
+            reads++;
+            byte[] chunk = chunks.poll();
+            if (chunk == null) {
+                throw new IOException(END_OF_DATA);
+            }
+            assertTrue("Chunk exceeds free buffer", chunk.length <= length);
+            System.arraycopy(chunk, 0, buffer, offset, chunk.length);
+            return chunk.length;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        connector.addEventListener(new RFXComEventListener() {
+            @Override
+            public void packetReceived(byte[] data) {
+                packets.add(DatatypeConverter.printHexBinary(data));
+            }
+
+            @Override
+            public void errorOccurred(String error) {
+                errors.add(error);
+            }
+        });
+    }
+
+    private void addChunk(String hexData) {
+        connector.chunks.add(DatatypeConverter.parseHexBinary(hexData));
+    }
+
+    @Test
+    public void testBurstIsReadAtOnce() {
+        addChunk(TEMPERATURE + LIGHTING2 + WIND);
+
+        new RFXComStreamReader(connector).run();
+
+        assertEquals(3, packets.size());
+        assertEquals(TEMPERATURE, packets.get(0));
+        assertEquals(LIGHTING2, packets.get(1));
+        assertEquals(WIND, packets.get(2));
+        // One read for the burst and one for the end of the test data
+        assertEquals(2, connector.reads);
+    }
+
+    @Test
+    public void testFragmentedPacket() {
+        addChunk(TEMPERATURE.substring(0, 2));
+        addChunk("");
+        addChunk(TEMPERATURE.substring(2, 10));
+        addChunk(TEMPERATURE.substring(10) + LIGHTING2.substring(0, 6));
+        addChunk(LIGHTING2.substring(6));
+
+        new RFXComStreamReader(connector).run();
+
+        assertEquals(2, packets.size());
+        assertEquals(TEMPERATURE, packets.get(0));
+        assertEquals(LIGHTING2, packets.get(1));
+        assertEquals(END_OF_DATA, errors.get(0));
+    }
+
+    @Test
+    public void testZeroLengthBytesAreSkipped() {
+        addChunk("0000" + TEMPERATURE);
+
+        new RFXComStreamReader(connector).run();
+
+        assertEquals(1, packets.size());
+        assertEquals(TEMPERATURE, packets.get(0));
+    }
+
+    @Test
+    public void testTimeoutDuringPacket() {
+        addChunk(TEMPERATURE.substring(0, 6));
+        for (int i = 0; i < 4; i++) {
+            addChunk("");
+        }
+        addChunk(TEMPERATURE.substring(6));
+
+        new RFXComStreamReader(connector).run();
+
+        assertEquals(0, packets.size());
+        assertEquals("Timeout during packet read", errors.get(0));
+    }
+
+    @Test
+    public void testMorePacketsThanBufferSize() throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < 200; i++) {
+            data.write(DatatypeConverter.parseHexBinary(i % 2 == 0 ? WIND : LIGHTING2));
+        }
+        byte[] bytes = data.toByteArray();
+        // Chunks which do not end at packet boundaries
+        for (int i = 0; i < bytes.length; i += 100) {
+            byte[] chunk = new byte[Math.min(100, bytes.length - i)];
+            System.arraycopy(bytes, i, chunk, 0, chunk.length);
+            connector.chunks.add(chunk);
+        }
+
+        new RFXComStreamReader(connector).run();
+
+        assertEquals(200, packets.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 0 ? WIND : LIGHTING2, packets.get(i));
+        }
+    }
+}
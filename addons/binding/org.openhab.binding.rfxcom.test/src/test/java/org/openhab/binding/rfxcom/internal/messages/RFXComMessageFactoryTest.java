@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.messages;
+
+import static org.junit.Assert.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Test;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
+
+/**
+ * Test for RFXCom-binding
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComMessageFactoryTest {
+    // Received packets of a mixed sensor and lighting installation
+    private static final String[] RECORDED_TRAFFIC = { "08500110000180BC69", "0A5201800F0201294C0349",
+            "0B11000600109B520B000080", "0850021DFB0100D770", "085101027700360189", "0A520211700200A72D0089",
+            "0D54020EE90000C9270203E70439", "0B550217B6000000004D3C69", "0850091A00C3800689", "095703123421194731E9",
+            "105601122F000087000000140000000079", "135B0106B800000016000000000000006F148889", "0850097200C300E089",
+            "0A5205D42F000082590379", "135B014FB80002001D0000000000000000000079" };
+
+    @Test
+    public void testSensorMessageIsReused() throws RFXComException {
+        Map<PacketType, RFXComMessage> reusableMessages = new EnumMap<>(PacketType.class);
+
+        RFXComTemperatureMessage first = (RFXComTemperatureMessage) RFXComMessageFactory
+                .createMessage(DatatypeConverter.parseHexBinary("08500110000180BC69"), reusableMessages);
+        RFXComTemperatureMessage second = (RFXComTemperatureMessage) RFXComMessageFactory
+                .createMessage(DatatypeConverter.parseHexBinary("0850021DFB0100D770"), reusableMessages);
+
+        assertSame(first, second);
+        assertEquals("Sensor Id", "64257", second.getDeviceId());
+        assertEquals("Temperature", 21.5d, second.temperature, 0.001);
+        assertEquals("Battery", 0, second.batteryLevel);
+    }
+
+    @Test
+    public void testLightingMessageIsNotReused() throws RFXComException {
+        Map<PacketType, RFXComMessage> reusableMessages = new EnumMap<>(PacketType.class);
+        byte[] packet = DatatypeConverter.parseHexBinary("0B11000600109B520B000080");
+
+        RFXComMessage first = RFXComMessageFactory.createMessage(packet, reusableMessages);
+        RFXComMessage second = RFXComMessageFactory.createMessage(packet, reusableMessages);
+
+        assertNotSame(first, second);
+        assertTrue(reusableMessages.isEmpty());
+    }
+
+    @Test
+    public void testRecordedTrafficDecodesLikeNewMessages() throws RFXComException {
+        Map<PacketType, RFXComMessage> reusableMessages = new EnumMap<>(PacketType.class);
+
+        // Decode the traffic several times, so every reusable message is overwritten by packets of other devices
+        for (int i = 0; i < 3; i++) {
+            for (String hexMsg : RECORDED_TRAFFIC) {
+                byte[] packet = DatatypeConverter.parseHexBinary(hexMsg);
+                RFXComMessage expected = RFXComMessageFactory.createMessage(packet);
+                RFXComMessage actual = RFXComMessageFactory.createMessage(packet, reusableMessages);
+
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals("Message converted back", hexMsg,
+                        DatatypeConverter.printHexBinary(actual.decodeMessage()));
+            }
+        }
+    }
+
+    @Test
+    public void testCreateEmptyMessage() throws RFXComException {
+        RFXComMessage msg = RFXComMessageFactory.createMessage(PacketType.LIGHTING2);
+
+        assertTrue(msg instanceof RFXComLighting2Message);
+        assertEquals(PacketType.LIGHTING2, ((RFXComBaseMessage) msg).getPacketType());
+    }
+}
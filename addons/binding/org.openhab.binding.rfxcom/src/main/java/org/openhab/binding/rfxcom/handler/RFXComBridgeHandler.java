@@ -8,13 +8,17 @@
  */
 package org.openhab.binding.rfxcom.handler;
 
+import static org.openhab.binding.rfxcom.RFXComBindingConstants.PACKET_TYPE_THING_TYPE_UID_MAP;
+
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -24,9 +28,11 @@ import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.rfxcom.internal.DeviceMessageListener;
+import org.openhab.binding.rfxcom.internal.RFXComTransmitQueue;
 import org.openhab.binding.rfxcom.internal.config.RFXComBridgeConfiguration;
 import org.openhab.binding.rfxcom.internal.connector.RFXComConnectorInterface;
 import org.openhab.binding.rfxcom.internal.connector.RFXComEventListener;
@@ -36,6 +42,7 @@ import org.openhab.binding.rfxcom.internal.connector.RFXComTcpConnector;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
 import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
 import org.openhab.binding.rfxcom.internal.messages.RFXComDeviceMessage;
 import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceControlMessage;
 import org.openhab.binding.rfxcom.internal.messages.RFXComInterfaceMessage;
@@ -64,46 +71,33 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
 
     private List<DeviceMessageListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
 
+    // Device listeners by thing type and device id, they receive only the messages of their device
+    private Map<String, List<DeviceMessageListener>> deviceListeners = new ConcurrentHashMap<>();
+    private final AtomicLong routedMessages = new AtomicLong();
+    private final AtomicLong unmatchedMessages = new AtomicLong();
+
     private RFXComBridgeConfiguration configuration = null;
     private ScheduledFuture<?> connectorTask;
 
-    private class TransmitQueue {
-        private Queue<RFXComBaseMessage> queue = new LinkedBlockingQueue<>();
+    private static final long TRANSMIT_ACK_TIMEOUT_MS = 5000;
 
-        public synchronized void enqueue(RFXComBaseMessage msg) throws IOException {
-            boolean wasEmpty = queue.isEmpty();
-            if (queue.offer(msg)) {
-                if (wasEmpty) {
-                    send();
-                }
-            } else {
-                logger.error("Transmit queue overflow. Lost message: {}", msg);
-            }
+    private RFXComTransmitQueue transmitQueue = new RFXComTransmitQueue(new RFXComTransmitQueue.Transmitter() {
+        @Override
+        public boolean isReady() {
+            return connector != null;
         }
 
-        public synchronized void sendNext() throws IOException {
-            queue.poll();
-            send();
+        @Override
+        public void transmit(byte[] data) throws IOException {
+            connector.sendMessage(data);
         }
 
-        public synchronized void send() throws IOException {
-            while (!queue.isEmpty()) {
-                RFXComBaseMessage msg = queue.peek();
-
-                try {
-                    logger.debug("Transmitting message '{}'", msg);
-                    byte[] data = msg.decodeMessage();
-                    connector.sendMessage(data);
-                    break;
-                } catch (RFXComException rfxe) {
-                    logger.error("Error during send of {}", msg, rfxe);
-                    queue.poll();
-                }
-            }
+        @Override
+        public void transmitFailed(IOException e) {
+            logger.error("I/O Error", e);
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
         }
-    }
-
-    private TransmitQueue transmitQueue = new TransmitQueue();
+    }, scheduler, TRANSMIT_ACK_TIMEOUT_MS);
 
     public RFXComBridgeHandler(@NonNull Bridge br) {
         super(br);
@@ -121,6 +115,7 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
             unregisterDeviceStatusListener(deviceStatusListener);
         }
+        deviceListeners.clear();
 
         if (connector != null) {
             connector.removeEventListener(eventListener);
@@ -152,6 +147,9 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
                     if (thing.getStatus() != ThingStatus.ONLINE) {
                         connect();
                     }
+                    logger.debug("Device messages routed: {}, unmatched: {}", routedMessages.get(),
+                            unmatchedMessages.get());
+                    transmitQueue.logStatistics();
                 }
             }, 0, 60, TimeUnit.SECONDS);
         }
@@ -223,11 +221,13 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
     }
 
     private class MessageListener implements RFXComEventListener {
+        // Messages of high rate sensors are decoded into the same object, they are not kept by the listeners
+        private final Map<PacketType, RFXComMessage> reusableMessages = new EnumMap<>(PacketType.class);
 
         @Override
         public void packetReceived(byte[] packet) {
             try {
-                RFXComMessage message = RFXComMessageFactory.createMessage(packet);
+                RFXComMessage message = RFXComMessageFactory.createMessage(packet, reusableMessages);
                 logger.debug("Message received: {}", message);
 
                 if (message instanceof RFXComInterfaceMessage) {
@@ -279,24 +279,16 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
                         transmitQueue.send();
                     } else {
                         logger.debug("Interface response received: {}", msg);
-                        transmitQueue.sendNext();
+                        transmitQueue.acknowledge(msg.seqNbr);
                     }
                 } else if (message instanceof RFXComTransmitterMessage) {
                     RFXComTransmitterMessage resp = (RFXComTransmitterMessage) message;
 
                     logger.debug("Transmitter response received: {}", resp);
 
-                    transmitQueue.sendNext();
+                    transmitQueue.acknowledge(resp.seqNbr);
                 } else if (message instanceof RFXComDeviceMessage) {
-                    for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
-                        try {
-                            deviceStatusListener.onDeviceMessageReceived(getThing().getUID(),
-                                    (RFXComDeviceMessage) message);
-                        } catch (Exception e) {
-                            // catch all exceptions give all handlers a fair chance of handling the messages
-                            logger.error("An exception occurred while calling the DeviceStatusListener", e);
-                        }
-                    }
+                    routeDeviceMessage((RFXComDeviceMessage) message);
                 } else {
                     logger.warn("The received message cannot be processed, please create an "
                             + "issue at the relevant tracker. Received message: {}", message);
@@ -316,6 +308,34 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
             logger.error("Error occurred: {}", error);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR);
         }
+
+        /**
+         * Delivers a device message to the listeners of its device only. Messages of unknown devices are delivered
+         * to the device status listeners, e.g. the discovery service.
+         */
+        private void routeDeviceMessage(RFXComDeviceMessage message) {
+            List<DeviceMessageListener> listeners = null;
+            ThingTypeUID thingTypeUID = PACKET_TYPE_THING_TYPE_UID_MAP.get(message.getPacketType());
+            if (thingTypeUID != null) {
+                listeners = deviceListeners.get(getRoutingKey(thingTypeUID, message.getDeviceId()));
+            }
+
+            if (listeners != null) {
+                routedMessages.incrementAndGet();
+            } else {
+                unmatchedMessages.incrementAndGet();
+                listeners = deviceStatusListeners;
+            }
+
+            for (DeviceMessageListener listener : listeners) {
+                try {
+                    listener.onDeviceMessageReceived(getThing().getUID(), message);
+                } catch (Exception e) {
+                    // catch all exceptions give all handlers a fair chance of handling the messages
+                    logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                }
+            }
+        }
     }
 
     public boolean registerDeviceStatusListener(DeviceMessageListener deviceStatusListener) {
@@ -326,11 +346,61 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
                 : deviceStatusListeners.add(deviceStatusListener);
     }
 
+    /**
+     * Registers a listener for the messages of a single device. Messages of registered devices are not passed to the
+     * listeners registered by {@link #registerDeviceStatusListener(DeviceMessageListener)}.
+     *
+     * @param thingTypeUID The thing type of the device, which corresponds to the packet type of its messages.
+     * @param deviceId The device id as reported by {@link RFXComDeviceMessage#getDeviceId()}.
+     * @param deviceListener The listener for the messages of the device.
+     * @return true if the listener has been added
+     */
+    public boolean registerDeviceListener(ThingTypeUID thingTypeUID, String deviceId,
+            DeviceMessageListener deviceListener) {
+        if (deviceListener == null) {
+            throw new IllegalArgumentException("It's not allowed to pass a null deviceListener.");
+        }
+        boolean[] added = new boolean[1];
+        deviceListeners.compute(getRoutingKey(thingTypeUID, deviceId), (key, listeners) -> {
+            List<DeviceMessageListener> result = listeners == null ? new CopyOnWriteArrayList<>() : listeners;
+            if (!result.contains(deviceListener)) {
+                added[0] = result.add(deviceListener);
+            }
+            return result;
+        });
+        return added[0];
+    }
+
     public boolean unregisterDeviceStatusListener(DeviceMessageListener deviceStatusListener) {
         if (deviceStatusListener == null) {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
-        return deviceStatusListeners.remove(deviceStatusListener);
+        boolean[] removed = new boolean[] { deviceStatusListeners.remove(deviceStatusListener) };
+        for (String key : deviceListeners.keySet()) {
+            deviceListeners.computeIfPresent(key, (k, listeners) -> {
+                removed[0] |= listeners.remove(deviceStatusListener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+        return removed[0];
+    }
+
+    private static String getRoutingKey(ThingTypeUID thingTypeUID, String deviceId) {
+        return thingTypeUID.getId() + ":" + deviceId;
+    }
+
+    /**
+     * Returns the number of device messages, which have been delivered to the listener of their device.
+     */
+    public long getRoutedMessageCount() {
+        return routedMessages.get();
+    }
+
+    /**
+     * Returns the number of device messages of unknown devices.
+     */
+    public long getUnmatchedMessageCount() {
+        return unmatchedMessages.get();
     }
 
     public RFXComBridgeConfiguration getConfiguration() {
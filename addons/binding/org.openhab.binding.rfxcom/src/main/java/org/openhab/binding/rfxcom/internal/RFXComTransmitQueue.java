@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComDeviceMessage;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting1Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting2Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting5Message;
+import org.openhab.binding.rfxcom.internal.messages.RFXComLighting6Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends one message at a time to the RFXCOM transceiver and waits for its response before sending the next one.
+ * Queued messages are sent in order. A message, which sets the absolute state of a device (ON, OFF, SET_LEVEL),
+ * replaces an older queued absolute message to the same device. Relative and one-shot commands like DIM or MOOD are
+ * never replaced. If the transceiver does not respond, the next message is sent after a timeout.
+ *
+ * @author agent - Initial contribution
+ */
+public class RFXComTransmitQueue {
+
+    /**
+     * Sends the data of the queued messages to the transceiver.
+     */
+    public interface Transmitter {
+        /**
+         * Returns true, if messages can be sent to the transceiver.
+         */
+        boolean isReady();
+
+        void transmit(byte[] data) throws IOException;
+
+        /**
+         * Called when a message could not be sent outside of a call to the queue.
+         */
+        void transmitFailed(IOException e);
+    }
+
+    // Sequence numbers of the queued messages, the lower numbers are used by the fixed interface commands
+    private static final int FIRST_SEQ_NBR = 4;
+    private static final int LAST_SEQ_NBR = 255;
+
+    private static class QueuedMessage {
+        final RFXComBaseMessage message;
+        final byte[] data;
+        final String deviceKey;
+        final boolean absolute;
+        final long enqueueTime = System.currentTimeMillis();
+        byte seqNbr;
+
+        QueuedMessage(RFXComBaseMessage message, byte[] data, String deviceKey, boolean absolute) {
+            this.message = message;
+            this.data = data;
+            this.deviceKey = deviceKey;
+            this.absolute = absolute;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RFXComTransmitQueue.class);
+
+    private final Transmitter transmitter;
+    private final ScheduledExecutorService scheduler;
+    private final long ackTimeoutMillis;
+
+    private final LinkedList<QueuedMessage> queue = new LinkedList<>();
+    private QueuedMessage inFlight;
+    private ScheduledFuture<?> ackTimeout;
+    private int nextSeqNbr = FIRST_SEQ_NBR;
+
+    private long transmittedMessages;
+    private long coalescedMessages;
+    private long ackTimeouts;
+    private long totalWaitTime;
+    private long maxWaitTime;
+
+    public RFXComTransmitQueue(Transmitter transmitter, ScheduledExecutorService scheduler, long ackTimeoutMillis) {
+        this.transmitter = transmitter;
+        this.scheduler = scheduler;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+    }
+
+    /**
+     * Queues a device message and sends it, if no other message waits for a response.
+     */
+    public synchronized void enqueue(RFXComBaseMessage msg) throws RFXComException, IOException {
+        byte[] data = msg.decodeMessage();
+        String deviceKey = null;
+        if (msg instanceof RFXComDeviceMessage && isLighting(msg)) {
+            // Packet type, sub type and device id
+            deviceKey = msg.getPacketType() + ":" + data[2] + ":" + ((RFXComDeviceMessage<?>) msg).getDeviceId();
+        }
+        QueuedMessage queued = new QueuedMessage(msg, data, deviceKey, deviceKey != null && isAbsoluteCommand(msg));
+        if (!queued.absolute || !replaceQueued(queued)) {
+            queue.add(queued);
+        }
+        if (inFlight == null) {
+            send();
+        }
+    }
+
+    /**
+     * Replaces the last queued message to the same device, if it is an absolute command as well. The new message
+     * keeps the place of the old one. If a relative command to the device has been queued after the last absolute
+     * one, nothing is replaced to keep the order of the commands.
+     */
+    private boolean replaceQueued(QueuedMessage queued) {
+        ListIterator<QueuedMessage> it = queue.listIterator(queue.size());
+        while (it.hasPrevious()) {
+            QueuedMessage previous = it.previous();
+            if (queued.deviceKey.equals(previous.deviceKey)) {
+                if (!previous.absolute) {
+                    return false;
+                }
+                logger.debug("Message '{}' superseded by '{}'", previous.message, queued.message);
+                coalescedMessages++;
+                it.set(queued);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLighting(RFXComBaseMessage msg) {
+        return msg instanceof RFXComLighting1Message || msg instanceof RFXComLighting2Message
+                || msg instanceof RFXComLighting5Message || msg instanceof RFXComLighting6Message;
+    }
+
+    /**
+     * Returns true, if the command of the message sets the state of the device regardless of its current state.
+     */
+    private static boolean isAbsoluteCommand(RFXComBaseMessage msg) {
+        if (msg instanceof RFXComLighting1Message) {
+            RFXComLighting1Message.Commands command = ((RFXComLighting1Message) msg).command;
+            return command == RFXComLighting1Message.Commands.ON || command == RFXComLighting1Message.Commands.OFF;
+        } else if (msg instanceof RFXComLighting2Message) {
+            RFXComLighting2Message.Commands command = ((RFXComLighting2Message) msg).command;
+            return command == RFXComLighting2Message.Commands.ON || command == RFXComLighting2Message.Commands.OFF
+                    || command == RFXComLighting2Message.Commands.SET_LEVEL;
+        } else if (msg instanceof RFXComLighting5Message) {
+            RFXComLighting5Message.Commands command = ((RFXComLighting5Message) msg).command;
+            return command == RFXComLighting5Message.Commands.ON || command == RFXComLighting5Message.Commands.OFF
+                    || command == RFXComLighting5Message.Commands.SET_LEVEL;
+        } else if (msg instanceof RFXComLighting6Message) {
+            RFXComLighting6Message.Commands command = ((RFXComLighting6Message) msg).command;
+            return command == RFXComLighting6Message.Commands.ON || command == RFXComLighting6Message.Commands.OFF;
+        }
+        return false;
+    }
+
+    /**
+     * Called when the transceiver has responded to a message. The next message is only sent, if the response has the
+     * sequence number of the message, which waits for a response. Late responses to messages, which have timed out,
+     * are ignored.
+     *
+     * @return true if the response belongs to the message, which waited for a response
+     */
+    public synchronized boolean acknowledge(byte seqNbr) throws IOException {
+        if (inFlight == null || inFlight.seqNbr != seqNbr) {
+            logger.debug("Ignoring response with sequence number {}", seqNbr & 0xFF);
+            return false;
+        }
+        if (ackTimeout != null) {
+            ackTimeout.cancel(false);
+            ackTimeout = null;
+        }
+        inFlight = null;
+        send();
+        return true;
+    }
+
+    /**
+     * Sends the message, which waits for a response, again or the next queued message.
+     */
+    public synchronized void send() throws IOException {
+        if (!transmitter.isReady()) {
+            // Not connected, the messages are sent after the receiver has been started
+            return;
+        }
+        if (inFlight == null) {
+            inFlight = queue.poll();
+            if (inFlight == null) {
+                return;
+            }
+            inFlight.seqNbr = nextSeqNbr();
+            inFlight.data[3] = inFlight.seqNbr;
+            long waitTime = System.currentTimeMillis() - inFlight.enqueueTime;
+            transmittedMessages++;
+            totalWaitTime += waitTime;
+            maxWaitTime = Math.max(maxWaitTime, waitTime);
+        }
+
+        logger.debug("Transmitting message '{}' with sequence number {}", inFlight.message, inFlight.seqNbr & 0xFF);
+        transmitter.transmit(inFlight.data);
+
+        QueuedMessage sent = inFlight;
+        if (ackTimeout != null) {
+            ackTimeout.cancel(false);
+        }
+        ackTimeout = scheduler.schedule(() -> ackTimedOut(sent), ackTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private byte nextSeqNbr() {
+        byte seqNbr = (byte) nextSeqNbr;
+        nextSeqNbr = nextSeqNbr == LAST_SEQ_NBR ? FIRST_SEQ_NBR : nextSeqNbr + 1;
+        return seqNbr;
+    }
+
+    private synchronized void ackTimedOut(QueuedMessage sent) {
+        if (inFlight != sent) {
+            return;
+        }
+        logger.warn("No response from RFXCOM transceiver to '{}', sending next message", sent.message);
+        ackTimeouts++;
+        ackTimeout = null;
+        inFlight = null;
+        try {
+            send();
+        } catch (IOException e) {
+            transmitter.transmitFailed(e);
+        }
+    }
+
+    /**
+     * Returns the number of messages, which have been replaced by a newer message before they were sent.
+     */
+    public synchronized long getCoalescedMessageCount() {
+        return coalescedMessages;
+    }
+
+    /**
+     * Returns the number of sent messages, to which the transceiver has not responded in time.
+     */
+    public synchronized long getAckTimeoutCount() {
+        return ackTimeouts;
+    }
+
+    public synchronized void logStatistics() {
+        logger.debug("Transmit queue: {} queued, {} sent, {} superseded, {} timeouts, wait avg {} ms, max {} ms",
+                queue.size(), transmittedMessages, coalescedMessages, ackTimeouts,
+                transmittedMessages == 0 ? 0 : totalWaitTime / transmittedMessages, maxWaitTime);
+    }
+}
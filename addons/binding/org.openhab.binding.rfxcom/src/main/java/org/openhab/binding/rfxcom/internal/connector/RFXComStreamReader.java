@@ -9,6 +9,7 @@
 package org.openhab.binding.rfxcom.internal.connector;
 
 import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
 import java.util.Arrays;
 
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComTimeoutException;
@@ -18,6 +19,10 @@ import org.slf4j.LoggerFactory;
 /**
  * RFXCOM stream reader to parse RFXCOM output into messages.
  *
+ * Each read fetches as many bytes as the connector has available into a receive buffer, and all complete packets in
+ * the buffer are passed to the listeners afterwards. A burst of packets is therefore handled with a few reads instead
+ * of two or more reads per packet.
+ *
  * @author Martin van Wingerden - Slight refactoring for read loop for TCP connector
  * @author Mike Jagdis - Interruptible read loop
  * @author James Hewitt-Thomas - New class
@@ -26,6 +31,7 @@ import org.slf4j.LoggerFactory;
 public class RFXComStreamReader extends Thread {
     private final Logger logger = LoggerFactory.getLogger(RFXComStreamReader.class);
     private static final int MAX_READ_TIMEOUTS = 4;
+    private static final int BUFFER_SIZE = 1024;
 
     private RFXComBaseConnector connector;
 
@@ -44,24 +50,37 @@ public class RFXComStreamReader extends Thread {
     @Override
     public void run() {
         logger.debug("Data listener started");
-        byte[] buf = new byte[Byte.MAX_VALUE];
+        byte[] buf = new byte[BUFFER_SIZE];
+        int start = 0;
+        int end = 0;
+        int readTimeoutCount = 0;
 
         // The stream has (or SHOULD have) a read timeout set. Taking a
         // read timeout (read returns 0) between packets gives us a chance
-        // to check if we've been interrupted. Read interrupts during a
-        // packet are ignored but if too many timeouts occur we take it as
-        // meaning the RFXCOM has become missing presumed dead.
+        // to check if we've been interrupted. If too many timeouts occur
+        // during a packet we take it as meaning the RFXCOM has become
+        // missing presumed dead.
         try {
-            while (!Thread.interrupted()) {
-                // First byte tells us how long the packet is
-                int bytesRead = connector.read(buf, 0, 1);
-                int packetLength = buf[0];
+            while (!Thread.currentThread().isInterrupted()) {
+                // Move an incomplete packet to the front, a packet is at most Byte.MAX_VALUE + 1 bytes long
+                if (end + Byte.MAX_VALUE + 1 > buf.length) {
+                    System.arraycopy(buf, start, buf, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
 
-                if (bytesRead > 0 && packetLength > 0) {
-                    processMessage(buf, packetLength);
-                    connector.sendMsgToListeners(Arrays.copyOfRange(buf, 0, packetLength + 1));
+                int bytesRead = connector.read(buf, end, buf.length - end);
+
+                if (bytesRead > 0) {
+                    end += bytesRead;
+                    readTimeoutCount = 0;
+                    start = processMessages(buf, start, end);
+                } else if (start < end && ++readTimeoutCount == MAX_READ_TIMEOUTS) {
+                    throw new RFXComTimeoutException("Timeout during packet read");
                 }
             }
+        } catch (ClosedByInterruptException e) {
+            logger.debug("Read interrupted by disconnect");
         } catch (IOException | RFXComTimeoutException e) {
             logger.debug("Received exception, will report it to listeners", e);
             connector.sendErrorToListeners(e.getMessage());
@@ -70,22 +89,25 @@ public class RFXComStreamReader extends Thread {
         logger.debug("Data listener stopped");
     }
 
-    private void processMessage(byte[] buf, int packetLength) throws IOException, RFXComTimeoutException {
-        // Now read the rest of the packet
-        int bufferIndex = 1;
-        int readTimeoutCount = 1;
-        int bytesRead;
-        while (bufferIndex <= packetLength) {
-            int bytesRemaining = packetLength - bufferIndex + 1;
-
-            bytesRead = connector.read(buf, bufferIndex, bytesRemaining);
+    /**
+     * Passes all complete packets of the buffer to the listeners.
+     *
+     * @return the start of the first incomplete packet
+     */
+    private int processMessages(byte[] buf, int start, int end) {
+        while (start < end) {
+            // First byte tells us how long the packet is
+            int packetLength = buf[start];
 
-            if (bytesRead > 0) {
-                bufferIndex += bytesRead;
-                readTimeoutCount = 1;
-            } else if (readTimeoutCount++ == MAX_READ_TIMEOUTS) {
-                throw new RFXComTimeoutException("Timeout during packet read");
+            if (packetLength <= 0) {
+                start++;
+            } else if (start + packetLength < end) {
+                connector.sendMsgToListeners(Arrays.copyOfRange(buf, start, start + packetLength + 1));
+                start += packetLength + 1;
+            } else {
+                break;
             }
         }
+        return start;
     }
 }
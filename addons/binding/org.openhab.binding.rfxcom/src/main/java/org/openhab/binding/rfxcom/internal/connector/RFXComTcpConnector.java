@@ -8,10 +8,13 @@
  */
 package org.openhab.binding.rfxcom.internal.connector;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -21,31 +24,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * RFXCOM connector for TCP/IP communication.
+ * RFXCOM connector for TCP/IP communication. The socket is read with NIO, so each read returns all received bytes at
+ * once and waiting for data does not throw an exception on every read timeout.
  *
  * @author Pauli Anttila - Initial contribution
  * @author Ivan F. Martinez, James Hewitt-Thomas - Implementation
  */
 public class RFXComTcpConnector extends RFXComBaseConnector {
+    private static final int READ_TIMEOUT_MS = 100; // Small values mean faster shutdown but more cpu usage.
+
     private final Logger logger = LoggerFactory.getLogger(RFXComTcpConnector.class);
 
-    private OutputStream out;
-    private Socket socket;
+    private SocketChannel channel;
+    private Selector selector;
 
     private Thread readerThread;
 
     @Override
     public void connect(RFXComBridgeConfiguration device) throws IOException {
         logger.info("Connecting to RFXCOM at {}:{} over TCP/IP", device.host, device.port);
-        socket = new Socket(device.host, device.port);
-        socket.setSoTimeout(100); // In ms. Small values mean faster shutdown but more cpu usage.
-        in = socket.getInputStream();
-        out = socket.getOutputStream();
-
-        out.flush();
-        if (in.markSupported()) {
-            in.reset();
-        }
+        channel = SocketChannel.open(new InetSocketAddress(device.host, device.port));
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
 
         readerThread = new RFXComStreamReader(this);
         readerThread.start();
@@ -64,42 +65,51 @@ public class RFXComTcpConnector extends RFXComBaseConnector {
             }
         }
 
-        if (out != null) {
-            logger.debug("Close tcp out stream");
-            IOUtils.closeQuietly(out);
-        }
-        if (in != null) {
-            logger.debug("Close tcp in stream");
-            IOUtils.closeQuietly(in);
+        if (selector != null) {
+            logger.debug("Close selector");
+            IOUtils.closeQuietly(selector);
         }
 
-        if (socket != null) {
+        if (channel != null) {
             logger.debug("Close socket");
-            IOUtils.closeQuietly(socket);
+            IOUtils.closeQuietly(channel);
         }
 
         readerThread = null;
-        socket = null;
-        out = null;
-        in = null;
+        selector = null;
+        channel = null;
 
         logger.debug("Closed");
     }
 
     @Override
-    public void sendMessage(byte[] data) throws IOException {
+    public synchronized void sendMessage(byte[] data) throws IOException {
+        if (channel == null) {
+            throw new IOException("Not connected sending messages is not possible");
+        }
+
         logger.trace("Send data (len={}): {}", data.length, DatatypeConverter.printHexBinary(data));
-        out.write(data);
-        out.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                // The socket send buffer is full, which does not happen with the short RFXCOM messages in practice
+                Thread.yield();
+            }
+        }
     }
 
     @Override
     int read(byte[] buffer, int offset, int length) throws IOException {
-        try {
-            return super.read(buffer, offset, length);
-        } catch (SocketTimeoutException ignore) {
-            // ignore this exception, instead return 0 to behave like the serial read
+        // Return 0 on timeout to behave like the serial read
+        if (selector.select(READ_TIMEOUT_MS) == 0 || Thread.currentThread().isInterrupted()) {
             return 0;
         }
+        selector.selectedKeys().clear();
+
+        int bytesRead = channel.read(ByteBuffer.wrap(buffer, offset, length));
+        if (bytesRead < 0) {
+            throw new EOFException("Connection closed by RFXCOM");
+        }
+        return bytesRead;
     }
 }
@@ -8,11 +8,12 @@
  */
 package org.openhab.binding.rfxcom.internal.messages;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
@@ -24,58 +25,126 @@ import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType
  */
 public class RFXComMessageFactory {
 
-    @SuppressWarnings("serial")
-    private static final Map<PacketType, Class<? extends RFXComMessage>> MESSAGE_CLASSES = Collections
-            .unmodifiableMap(new HashMap<PacketType, Class<? extends RFXComMessage>>() {
-                {
-                    put(PacketType.INTERFACE_CONTROL, RFXComInterfaceControlMessage.class);
-                    put(PacketType.INTERFACE_MESSAGE, RFXComInterfaceMessage.class);
-                    put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage.class);
-                    put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage.class);
-                    put(PacketType.LIGHTING1, RFXComLighting1Message.class);
-                    put(PacketType.LIGHTING2, RFXComLighting2Message.class);
-                    // put(PacketType.LIGHTING3, RFXComLighting3Message.class);
-                    put(PacketType.LIGHTING4, RFXComLighting4Message.class);
-                    put(PacketType.LIGHTING5, RFXComLighting5Message.class);
-                    put(PacketType.LIGHTING6, RFXComLighting6Message.class);
-                    put(PacketType.CHIME, RFXComChimeMessage.class);
-                    // put(PacketType.FAN, RFXComFanMessage.class);
-                    put(PacketType.CURTAIN1, RFXComCurtain1Message.class);
-                    put(PacketType.BLINDS1, RFXComBlinds1Message.class);
-                    put(PacketType.RFY, RFXComRfyMessage.class);
-                    put(PacketType.HOME_CONFORT, RFXComHomeConfortMessage.class);
-                    put(PacketType.SECURITY1, RFXComSecurity1Message.class);
-                    put(PacketType.SECURITY2, RFXComSecurity2Message.class);
-                    // put(PacketType.CAMERA1, RFXComCamera1Message.class);
-                    // put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage.class);
-                    put(PacketType.THERMOSTAT1, RFXComThermostat1Message.class);
-                    // put(PacketType.THERMOSTAT2, RFXComThermostat2Message.class);
-                    // put(PacketType.THERMOSTAT3, RFXComThermostat3Message.class);
-                    // put(PacketType.RADIATOR1, RFXComRadiator1Message.class);
-                    put(PacketType.BBQ, RFXComBBQTemperatureMessage.class);
-                    put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage.class);
-                    put(PacketType.TEMPERATURE, RFXComTemperatureMessage.class);
-                    put(PacketType.HUMIDITY, RFXComHumidityMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage.class);
-                    // put(PacketType.BAROMETRIC, RFXComBarometricMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, RFXComTemperatureHumidityBarometricMessage.class);
-                    put(PacketType.RAIN, RFXComRainMessage.class);
-                    put(PacketType.WIND, RFXComWindMessage.class);
-                    put(PacketType.UV, RFXComUVMessage.class);
-                    put(PacketType.DATE_TIME, RFXComDateTimeMessage.class);
-                    put(PacketType.CURRENT, RFXComCurrentMessage.class);
-                    put(PacketType.ENERGY, RFXComEnergyMessage.class);
-                    put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage.class);
-                    // put(PacketType.POWER, RFXComPowerMessage.class);
-                    // put(PacketType.WEIGHT, RFXComWeightMessage.class);
-                    // put(PacketType.GAS, RFXComGasMessage.class);
-                    // put(PacketType.WATER, RFXComWaterMessage.class);
-                    // put(PacketType.RFXSENSOR, RFXComRFXSensorMessage.class);
-                    // put(PacketType.RFXMETER, RFXComRFXMeterMessage.class);
-                    // put(PacketType.FS20, RFXComFS20Message.class);
-                    // put(PacketType.IO_LINES, RFXComIOLinesMessage.class);
-                }
-            });
+    /**
+     * Constructors of the messages, which decode a received packet.
+     */
+    private static final Map<PacketType, PacketConstructor> PACKET_CONSTRUCTORS = new EnumMap<>(PacketType.class);
+
+    /**
+     * Constructors of empty messages, which are used to transmit commands.
+     */
+    private static final Map<PacketType, Supplier<RFXComMessage>> MESSAGE_CONSTRUCTORS = new EnumMap<>(
+            PacketType.class);
+
+    /**
+     * Packet types of sensors, which usually send at a high rate. Decoding a packet of these types overwrites all
+     * fields of a message, so the message can be reused for the next packet of the same type.
+     */
+    private static final Set<PacketType> REUSABLE_PACKET_TYPES = Collections.unmodifiableSet(EnumSet.of(PacketType.BBQ,
+            PacketType.TEMPERATURE_RAIN, PacketType.TEMPERATURE, PacketType.HUMIDITY, PacketType.TEMPERATURE_HUMIDITY,
+            PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, PacketType.RAIN, PacketType.UV, PacketType.CURRENT,
+            PacketType.ENERGY, PacketType.CURRENT_ENERGY));
+
+    @FunctionalInterface
+    private interface PacketConstructor {
+        RFXComMessage create(byte[] packet) throws RFXComException;
+    }
+
+    static {
+        PACKET_CONSTRUCTORS.put(PacketType.INTERFACE_CONTROL, RFXComInterfaceControlMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.INTERFACE_MESSAGE, RFXComInterfaceMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.LIGHTING1, RFXComLighting1Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.LIGHTING2, RFXComLighting2Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.LIGHTING3, RFXComLighting3Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.LIGHTING4, RFXComLighting4Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.LIGHTING5, RFXComLighting5Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.LIGHTING6, RFXComLighting6Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.CHIME, RFXComChimeMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.FAN, RFXComFanMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.CURTAIN1, RFXComCurtain1Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.BLINDS1, RFXComBlinds1Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.RFY, RFXComRfyMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.HOME_CONFORT, RFXComHomeConfortMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.SECURITY1, RFXComSecurity1Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.SECURITY2, RFXComSecurity2Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.CAMERA1, RFXComCamera1Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.THERMOSTAT1, RFXComThermostat1Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.THERMOSTAT2, RFXComThermostat2Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.THERMOSTAT3, RFXComThermostat3Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.RADIATOR1, RFXComRadiator1Message::new);
+        PACKET_CONSTRUCTORS.put(PacketType.BBQ, RFXComBBQTemperatureMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.TEMPERATURE, RFXComTemperatureMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.HUMIDITY, RFXComHumidityMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.BAROMETRIC, RFXComBarometricMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC,
+                RFXComTemperatureHumidityBarometricMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.RAIN, RFXComRainMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.WIND, RFXComWindMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.UV, RFXComUVMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.DATE_TIME, RFXComDateTimeMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.CURRENT, RFXComCurrentMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.ENERGY, RFXComEnergyMessage::new);
+        PACKET_CONSTRUCTORS.put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.POWER, RFXComPowerMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.WEIGHT, RFXComWeightMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.GAS, RFXComGasMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.WATER, RFXComWaterMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.RFXSENSOR, RFXComRFXSensorMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.RFXMETER, RFXComRFXMeterMessage::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.FS20, RFXComFS20Message::new);
+        // PACKET_CONSTRUCTORS.put(PacketType.IO_LINES, RFXComIOLinesMessage::new);
+
+        MESSAGE_CONSTRUCTORS.put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING1, RFXComLighting1Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING2, RFXComLighting2Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING3, RFXComLighting3Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING4, RFXComLighting4Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING5, RFXComLighting5Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.LIGHTING6, RFXComLighting6Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.CHIME, RFXComChimeMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.FAN, RFXComFanMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.CURTAIN1, RFXComCurtain1Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.BLINDS1, RFXComBlinds1Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.RFY, RFXComRfyMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.HOME_CONFORT, RFXComHomeConfortMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.SECURITY1, RFXComSecurity1Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.SECURITY2, RFXComSecurity2Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.CAMERA1, RFXComCamera1Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.THERMOSTAT1, RFXComThermostat1Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.THERMOSTAT2, RFXComThermostat2Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.THERMOSTAT3, RFXComThermostat3Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.RADIATOR1, RFXComRadiator1Message::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.BBQ, RFXComBBQTemperatureMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.TEMPERATURE, RFXComTemperatureMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.HUMIDITY, RFXComHumidityMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.BAROMETRIC, RFXComBarometricMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC,
+                RFXComTemperatureHumidityBarometricMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.RAIN, RFXComRainMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.WIND, RFXComWindMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.UV, RFXComUVMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.DATE_TIME, RFXComDateTimeMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.CURRENT, RFXComCurrentMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.ENERGY, RFXComEnergyMessage::new);
+        MESSAGE_CONSTRUCTORS.put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.POWER, RFXComPowerMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.WEIGHT, RFXComWeightMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.GAS, RFXComGasMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.WATER, RFXComWaterMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.RFXSENSOR, RFXComRFXSensorMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.RFXMETER, RFXComRFXMeterMessage::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.FS20, RFXComFS20Message::new);
+        // MESSAGE_CONSTRUCTORS.put(PacketType.IO_LINES, RFXComIOLinesMessage::new);
+    }
 
     /**
      * Command to reset RFXCOM controller.
@@ -106,37 +175,59 @@ public class RFXComMessageFactory {
             0x00, 0x00, 0x00, 0x00, 0x00 };
 
     public static RFXComMessage createMessage(PacketType packetType) throws RFXComException {
+        Supplier<RFXComMessage> constructor = MESSAGE_CONSTRUCTORS.get(packetType);
+        if (constructor == null) {
+            throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
+        }
+        return constructor.get();
+    }
 
+    public static RFXComMessage createMessage(byte[] packet) throws RFXComException {
+        PacketType packetType = ByteEnumUtil.fromByte(PacketType.class, (int) packet[1]);
+
+        PacketConstructor constructor = PACKET_CONSTRUCTORS.get(packetType);
+        if (constructor == null) {
+            throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
+        }
         try {
-            Class<? extends RFXComMessage> cl = MESSAGE_CLASSES.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            return cl.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
+            return constructor.create(packet);
+        } catch (RuntimeException e) {
             throw new RFXComException(e);
         }
     }
 
-    public static RFXComMessage createMessage(byte[] packet) throws RFXComException {
+    /**
+     * Creates a message from a received packet like {@link #createMessage(byte[])}, but decodes packets of high rate
+     * sensors into a message of the same packet type from the given map instead of creating a new one. New messages
+     * of these types are added to the map.
+     *
+     * A reused message is overwritten by the next packet of its type, so it must not be kept by the receivers.
+     *
+     * @param packet The received packet.
+     * @param reusableMessages The messages to reuse by packet type. Must only be used by a single thread.
+     * @return The decoded message.
+     */
+    public static RFXComMessage createMessage(byte[] packet, Map<PacketType, RFXComMessage> reusableMessages)
+            throws RFXComException {
         PacketType packetType = ByteEnumUtil.fromByte(PacketType.class, (int) packet[1]);
+        if (!REUSABLE_PACKET_TYPES.contains(packetType)) {
+            return createMessage(packet);
+        }
 
+        RFXComMessage message = reusableMessages.get(packetType);
+        if (message == null) {
+            message = createMessage(packet);
+            reusableMessages.put(packetType, message);
+            return message;
+        }
         try {
-            Class<? extends RFXComMessage> cl = MESSAGE_CLASSES.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            Constructor<?> c = cl.getConstructor(byte[].class);
-            return (RFXComMessage) c.newInstance(packet);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof RFXComException) {
-                throw (RFXComException) e.getCause();
-            } else {
-                throw new RFXComException(e);
-            }
-        } catch (NoSuchMethodException | IllegalAccessException | InstantiationException e) {
-            throw new RFXComException(e);
+            message.encodeMessage(packet);
+        } catch (RFXComException | RuntimeException e) {
+            // The message may be partly overwritten, do not reuse it
+            reusableMessages.remove(packetType);
+            throw e instanceof RFXComException ? (RFXComException) e : new RFXComException(e);
         }
+        return message;
     }
 
     public static PacketType convertPacketType(String packetType) throws IllegalArgumentException {
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -22,6 +23,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -49,6 +51,7 @@ import org.rrd4j.ConsolFun;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
 import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +73,13 @@ public class ChartResource implements RESTResource {
 
     static final DecimalFormat df;
 
+    /**
+     * maximum age of a cached series, series with a smaller resolution are cached for one resolution step only
+     */
+    static final long SERIES_CACHE_MAX_AGE_MS = 60000;
+
+    static final int SERIES_CACHE_MAX_SIZE = 500;
+
     protected static final String RRD_FOLDER = org.eclipse.smarthome.config.core.ConfigConstants.getUserDataFolder()
             + File.separator + "persistence" + File.separator + "rrd4j";
 
@@ -83,6 +93,21 @@ public class ChartResource implements RESTResource {
 
     private ItemRegistry itemRegistry;
 
+    private final Map<String, CachedSeries> seriesCache = new ConcurrentHashMap<>();
+
+    /**
+     * A series sent to a client before
+     */
+    private static class CachedSeries {
+        private final Object data;
+        private final long expires;
+
+        CachedSeries(Object data, long expires) {
+            this.data = data;
+            this.expires = expires;
+        }
+    }
+
     @Context
     private UriInfo uriInfo;
 
@@ -112,7 +137,7 @@ public class ChartResource implements RESTResource {
     @Produces({ MediaType.APPLICATION_JSON })
     public Response getChartSeries(@Context HttpHeaders headers, @QueryParam("rrd") String itemName,
             @QueryParam("ds") String consFunction, @QueryParam("start") String start, @QueryParam("end") String end,
-            @QueryParam("res") long resolution) {
+            @QueryParam("res") long resolution, @QueryParam("points") int points) {
         if (logger.isDebugEnabled()) {
             logger.debug("Received GET request at '{}' for rrd '{}'.", uriInfo.getPath(), itemName);
         }
@@ -140,6 +165,21 @@ public class ChartResource implements RESTResource {
             service = parts[0];
         }
 
+        // charts of dashboards are reloaded periodically by every client, so the series are cached for a short time
+        String cacheKey = service + ":" + itemName + ":" + consFunction + ":" + start + ":" + end + ":" + resolution
+                + ":" + points;
+        long now = System.currentTimeMillis();
+        CachedSeries cachedSeries = seriesCache.get(cacheKey);
+        if (cachedSeries != null && cachedSeries.expires > now) {
+            logger.debug("series '{}' found in cache", cacheKey);
+            return Response.ok(cachedSeries.data, responseType).build();
+        }
+
+        // the RRD archive is chosen by the resolution, the series of other services are downsampled
+        long range = times[1] - times[0];
+        long rrdResolution = points > 0 ? Math.max(resolution, range / points) : resolution;
+        int maxPoints = points > 0 ? points : getMaxPoints(range, resolution);
+
         Item item;
         try {
             item = itemRegistry.getItem(itemName);
@@ -159,10 +199,12 @@ public class ChartResource implements RESTResource {
             }
             Object data = null;
             if (persistenceService.getId().equals("rrd4j")) {
-                data = getRrdSeries(persistenceService, item, consilidationFunction, startTime, endTime, resolution);
+                data = getRrdSeries(persistenceService, item, consilidationFunction, startTime, endTime,
+                        rrdResolution);
             } else {
-                data = getPersistenceSeries(persistenceService, item, startTime, endTime, resolution);
+                data = getDownsampledPersistenceSeries(persistenceService, item, startTime, endTime, maxPoints);
             }
+            cacheSeries(cacheKey, data, now + Math.min(SERIES_CACHE_MAX_AGE_MS, Math.max(resolution, 1) * 1000));
             return Response.ok(data, responseType).build();
         } catch (ItemNotFoundException e1) {
             logger.error("Item '{}' not found error while requesting series data.", itemName);
@@ -171,8 +213,47 @@ public class ChartResource implements RESTResource {
         return Response.serverError().build();
     }
 
+    private void cacheSeries(String cacheKey, Object data, long expires) {
+        if (seriesCache.size() >= SERIES_CACHE_MAX_SIZE) {
+            long now = System.currentTimeMillis();
+            seriesCache.values().removeIf(series -> series.expires <= now);
+            if (seriesCache.size() >= SERIES_CACHE_MAX_SIZE) {
+                seriesCache.clear();
+            }
+        }
+        seriesCache.put(cacheKey, new CachedSeries(data, expires));
+    }
+
+    /**
+     * returns the number of points of a series with the given range and resolution (both in seconds), 0 for
+     * unlimited
+     */
+    private static int getMaxPoints(long range, long resolution) {
+        if (resolution <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(2, range / resolution));
+    }
+
     public Object getPersistenceSeries(QueryablePersistenceService persistenceService, Item item, Date timeBegin,
             Date timeEnd, long resolution) {
+        return getDownsampledPersistenceSeries(persistenceService, item, timeBegin, timeEnd,
+                getMaxPoints(Util.getTimestamp(timeEnd) - Util.getTimestamp(timeBegin), resolution));
+    }
+
+    /**
+     * returns the series data of a persistence service, an array of [[timestamp,data]]
+     *
+     * @param persistenceService
+     * @param item
+     * @param timeBegin
+     * @param timeEnd
+     * @param maxPoints
+     *            - the series is downsampled to this number of points, 0 for all points
+     * @return
+     */
+    public Object getDownsampledPersistenceSeries(QueryablePersistenceService persistenceService, Item item,
+            Date timeBegin, Date timeEnd, int maxPoints) {
         Map<Long, ArrayList<String>> data = new HashMap<Long, ArrayList<String>>();
 
         // Define the data filter
@@ -188,21 +269,86 @@ public class ChartResource implements RESTResource {
 
         // Iterate through the data
         int dataCounter = 0;
+        int count = 0;
+        long[] timestamps = new long[64];
+        double[] values = new double[64];
         while (it.hasNext()) {
             dataCounter++;
             HistoricItem historicItem = it.next();
             org.eclipse.smarthome.core.types.State state = historicItem.getState();
             if (state instanceof DecimalType) {
-                ArrayList<String> vals = new ArrayList<String>();
-                vals.add(formatDouble(((DecimalType) state).doubleValue(), "null", true));
-                data.put(historicItem.getTimestamp().getTime(), vals);
+                if (count == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, count * 2);
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                timestamps[count] = historicItem.getTimestamp().getTime();
+                values[count] = ((DecimalType) state).doubleValue();
+                count++;
             }
         }
-        logger.debug("'{}' querying item '{}' from '{}' to '{}' => '{}' results", persistenceService.getId(),
-                filter.getItemName(), filter.getBeginDate(), filter.getEndDate(), dataCounter);
+        if (maxPoints > 0) {
+            count = downsample(timestamps, values, count, maxPoints);
+        }
+        for (int i = 0; i < count; i++) {
+            ArrayList<String> vals = new ArrayList<String>();
+            vals.add(formatDouble(values[i], "null", true));
+            data.put(timestamps[i], vals);
+        }
+        logger.debug("'{}' querying item '{}' from '{}' to '{}' => '{}' results, '{}' points sent",
+                persistenceService.getId(), filter.getItemName(), filter.getBeginDate(), filter.getEndDate(),
+                dataCounter, count);
         return convertToRrd(data);
     }
 
+    /**
+     * downsamples a series by min/max bucketing: the points are divided into buckets of equal size and only the
+     * minimum and the maximum of each bucket are kept, so peaks stay visible in the chart. The arrays are modified
+     * in place.
+     *
+     * @param timestamps
+     *            - the ascending timestamps of the points
+     * @param values
+     *            - the values of the points
+     * @param count
+     *            - the number of points in the arrays
+     * @param maxPoints
+     *            - the maximum number of points to keep
+     * @return the number of points kept at the beginning of the arrays
+     */
+    static int downsample(long[] timestamps, double[] values, int count, int maxPoints) {
+        int buckets = Math.max(1, maxPoints / 2);
+        if (count <= maxPoints || count <= 2 * buckets) {
+            return count;
+        }
+        int kept = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int begin = (int) ((long) bucket * count / buckets);
+            int end = (int) ((long) (bucket + 1) * count / buckets);
+            int min = begin;
+            int max = begin;
+            for (int i = begin + 1; i < end; i++) {
+                if (Double.isNaN(values[min]) || values[i] < values[min]) {
+                    min = i;
+                }
+                if (Double.isNaN(values[max]) || values[i] > values[max]) {
+                    max = i;
+                }
+            }
+            // keep the points in the order of their timestamps
+            int first = Math.min(min, max);
+            int second = Math.max(min, max);
+            timestamps[kept] = timestamps[first];
+            values[kept] = values[first];
+            kept++;
+            if (second != first) {
+                timestamps[kept] = timestamps[second];
+                values[kept] = values[second];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
     /**
      * returns a rrd series data, an array of [[timestamp,data1,data2,...]]
      *
@@ -258,10 +404,21 @@ public class ChartResource implements RESTResource {
 
     private Map<Long, ArrayList<String>> addRrdData(Map<Long, ArrayList<String>> data, String itemName,
             ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) throws IOException {
-        RrdDb rrdDb = new RrdDb(RRD_FOLDER + File.separator + itemName + ".rrd");
-        FetchRequest fetchRequest = rrdDb.createFetchRequest(consilidationFunction, Util.getTimestamp(timeBegin),
-                Util.getTimestamp(timeEnd), resolution);
-        FetchData fetchData = fetchRequest.fetchData();
+        String path = RRD_FOLDER + File.separator + itemName + ".rrd";
+        if (!new File(path).exists()) {
+            throw new FileNotFoundException(path);
+        }
+        // the pool shares the open handle of a file between concurrent requests and closes it after the last release
+        RrdDbPool pool = RrdDbPool.getInstance();
+        RrdDb rrdDb = pool.requestRrdDb(path);
+        FetchData fetchData;
+        try {
+            FetchRequest fetchRequest = rrdDb.createFetchRequest(consilidationFunction, Util.getTimestamp(timeBegin),
+                    Util.getTimestamp(timeEnd), resolution);
+            fetchData = fetchRequest.fetchData();
+        } finally {
+            pool.release(rrdDb);
+        }
         // logger.info(fetchData.toString());
         long[] timestamps = fetchData.getTimestamps();
         double[][] values = fetchData.getValues();
@@ -282,7 +439,6 @@ public class ChartResource implements RESTResource {
                 vals.add(dsIndex + indexOffset, formatDouble(values[dsIndex][row], "null", true));
             }
         }
-        rrdDb.close();
 
         return data;
     }
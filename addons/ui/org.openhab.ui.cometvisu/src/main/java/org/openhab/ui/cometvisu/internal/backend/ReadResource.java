@@ -14,6 +14,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,7 +37,6 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.openhab.ui.cometvisu.internal.Config;
 import org.openhab.ui.cometvisu.internal.backend.beans.StateBean;
@@ -55,7 +56,7 @@ import org.slf4j.LoggerFactory;
 public class ReadResource implements EventBroadcaster, RESTResource {
     private final Logger logger = LoggerFactory.getLogger(ReadResource.class);
 
-    private SseBroadcaster broadcaster = new SseBroadcaster();
+    private SubscriptionBroadcaster broadcaster = new SubscriptionBroadcaster(this::unsubscribe);
 
     private final ExecutorService executorService;
 
@@ -63,8 +64,8 @@ public class ReadResource implements EventBroadcaster, RESTResource {
 
     private StateEventListener stateEventListener;
 
-    private List<String> itemNames = new ArrayList<String>();
-    private Map<Item, Map<String, Class<? extends State>>> items = new HashMap<Item, Map<String, Class<? extends State>>>();
+    private Set<String> itemNames = ConcurrentHashMap.newKeySet();
+    private Map<Item, Map<String, Class<? extends State>>> items = new ConcurrentHashMap<>();
 
     @Context
     private UriInfo uriInfo;
@@ -83,6 +84,11 @@ public class ReadResource implements EventBroadcaster, RESTResource {
         this.stateEventListener.setEventBroadcaster(this);
     }
 
+    protected void deactivate() {
+        broadcaster.closeAll();
+        executorService.shutdown();
+    }
+
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
     }
@@ -115,15 +121,12 @@ public class ReadResource implements EventBroadcaster, RESTResource {
             @QueryParam("t") long time) throws IOException, InterruptedException {
         final EventOutput eventOutput = new EventOutput();
 
-        this.itemNames = itemNames;
-
-        broadcaster.add(eventOutput);
+        this.itemNames.addAll(itemNames);
 
         // get all requested items and send their states to the client
-        items = new HashMap<Item, Map<String, Class<? extends State>>>();
+        List<StateBean> states = new ArrayList<StateBean>();
         // send the current states of all items to the client
         if (this.itemRegistry != null) {
-            List<StateBean> states = new ArrayList<StateBean>();
             for (String cvItemName : itemNames) {
                 try {
                     String[] parts = cvItemName.split(":");
@@ -141,10 +144,15 @@ public class ReadResource implements EventBroadcaster, RESTResource {
                         ohItemName = parts[1];
                     }
                     Item item = this.itemRegistry.getItem(ohItemName);
-                    if (!items.containsKey(item)) {
-                        items.put(item, new HashMap<String, Class<? extends State>>());
-                    }
-                    items.get(item).put(cvItemName, stateClass);
+                    // the items are shared by all clients, the map is copied to not disturb a running notification
+                    final Class<? extends State> itemStateClass = stateClass;
+                    items.compute(item, (key, clientItems) -> {
+                        Map<String, Class<? extends State>> newClientItems = clientItems == null
+                                ? new HashMap<String, Class<? extends State>>()
+                                : new HashMap<String, Class<? extends State>>(clientItems);
+                        newClientItems.put(cvItemName, itemStateClass);
+                        return newClientItems;
+                    });
                     StateBean itemState = new StateBean();
                     itemState.name = cvItemName;
 
@@ -159,15 +167,43 @@ public class ReadResource implements EventBroadcaster, RESTResource {
                     logger.error("{}", e.getLocalizedMessage());
                 }
             }
-            logger.debug("initially broadcasting {}/{} item states", states.size(), itemNames.size());
-            broadcaster.broadcast(SseUtil.buildEvent(states));
+            logger.debug("initially sending {}/{} item states", states.size(), itemNames.size());
         }
+        // the client only receives the events of the requested items, starting with their current states
+        broadcaster.add(eventOutput, itemNames, states.isEmpty() ? null : SseUtil.buildEvent(states));
         // listen to state changes of the requested items
         registerItems();
 
         return eventOutput;
     }
 
+    /**
+     * stops listening to the item of the given address, if no client requests it anymore
+     *
+     * @param cvItemName
+     *            - the address, which is no longer subscribed
+     */
+    private void unsubscribe(String cvItemName) {
+        if (broadcaster.hasSubscribers(cvItemName)) {
+            return;
+        }
+        itemNames.remove(cvItemName);
+        for (Item item : items.keySet()) {
+            Map<String, Class<? extends State>> remaining = items.computeIfPresent(item, (key, clientItems) -> {
+                if (!clientItems.containsKey(cvItemName) || broadcaster.hasSubscribers(cvItemName)) {
+                    return clientItems;
+                }
+                Map<String, Class<? extends State>> newClientItems = new HashMap<String, Class<? extends State>>(
+                        clientItems);
+                newClientItems.remove(cvItemName);
+                return newClientItems.isEmpty() ? null : newClientItems;
+            });
+            if (remaining == null && item instanceof GenericItem) {
+                ((GenericItem) item).removeStateChangeListener(stateEventListener);
+            }
+        }
+    }
+
     /**
      * listen for state changes from the requested items
      */
@@ -217,7 +253,7 @@ public class ReadResource implements EventBroadcaster, RESTResource {
 
     /**
      * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * listening clients, which have requested the item of the event.
      *
      * @param item
      *            - the item which has changed
@@ -226,13 +262,27 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void broadcastEvent(final Object eventObject) {
-        executorService.execute(new Runnable() {
-
-            @Override
-            public void run() {
-                broadcaster.broadcast(SseUtil.buildEvent(eventObject));
+        if (eventObject instanceof StateBean) {
+            final String address = ((StateBean) eventObject).name;
+            if (!broadcaster.hasSubscribers(address)) {
+                return;
             }
-        });
+            executorService.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    broadcaster.broadcast(address, eventObject);
+                }
+            });
+        } else {
+            executorService.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    broadcaster.broadcast(eventObject);
+                }
+            });
+        }
     }
 
     @Override
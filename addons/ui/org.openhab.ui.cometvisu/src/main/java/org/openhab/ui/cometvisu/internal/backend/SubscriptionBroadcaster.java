@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.openhab.ui.cometvisu.internal.util.SseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcasts SSE events only to the clients, which have subscribed the address of the event. The clients are indexed
+ * by the addresses they have requested, each event is serialized once and queued for every interested client.
+ *
+ * Every client has its own bounded queue, which is written by a shared pool of writer threads. A slow client
+ * therefore does not delay the other clients, and if its queue is full the oldest event is dropped.
+ *
+ * A client is removed, when its connection has been closed. As a closed connection is only noticed when writing to
+ * it, idle clients periodically receive a comment. The addresses, which are not subscribed by any other client, are
+ * then passed to the unsubscribe listener.
+ *
+ * @author agent
+ * @since 2.3.0
+ */
+public class SubscriptionBroadcaster {
+    static final int MAX_QUEUED_EVENTS = 100;
+    private static final int WRITER_THREADS = 4;
+    private static final long KEEP_ALIVE_INTERVAL_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(SubscriptionBroadcaster.class);
+
+    private final Map<String, Set<Client>> clientsByAddress = new ConcurrentHashMap<>();
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService writerService = Executors.newScheduledThreadPool(WRITER_THREADS);
+    private final Consumer<String> unsubscribeListener;
+
+    /**
+     * Creates a broadcaster.
+     *
+     * @param unsubscribeListener
+     *            - called with every address, which is no longer subscribed by any client
+     */
+    public SubscriptionBroadcaster(Consumer<String> unsubscribeListener) {
+        this.unsubscribeListener = unsubscribeListener;
+        writerService.scheduleWithFixedDelay(this::keepAlive, KEEP_ALIVE_INTERVAL_SECONDS,
+                KEEP_ALIVE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A connected client with the queue of its pending events.
+     */
+    private class Client implements Runnable {
+        private final EventOutput eventOutput;
+        private final Set<String> addresses;
+        private final Deque<OutboundEvent> queue = new ArrayDeque<>();
+        private boolean writing;
+
+        Client(EventOutput eventOutput, Collection<String> addresses) {
+            this.eventOutput = eventOutput;
+            this.addresses = new HashSet<>(addresses);
+        }
+
+        synchronized void enqueue(OutboundEvent event) {
+            if (eventOutput.isClosed()) {
+                return;
+            }
+            if (queue.size() >= MAX_QUEUED_EVENTS) {
+                queue.poll();
+                logger.trace("dropping oldest event of a slow client");
+            }
+            queue.add(event);
+            if (!writing) {
+                writing = true;
+                writerService.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                OutboundEvent event;
+                synchronized (this) {
+                    event = queue.poll();
+                    if (event == null) {
+                        writing = false;
+                        return;
+                    }
+                }
+                try {
+                    eventOutput.write(event);
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("client disconnected: {}", e.getMessage());
+                    remove(this);
+                    synchronized (this) {
+                        queue.clear();
+                        writing = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a client, which receives the events of the given addresses.
+     *
+     * @param eventOutput
+     *            - the output of the client
+     * @param addresses
+     *            - the item addresses the client has requested
+     * @param initialEvent
+     *            - an event to send to this client first, may be null
+     */
+    public void add(EventOutput eventOutput, Collection<String> addresses, OutboundEvent initialEvent) {
+        removeClosed();
+        Client client = new Client(eventOutput, addresses);
+        if (initialEvent != null) {
+            client.enqueue(initialEvent);
+        }
+        clients.add(client);
+        for (String address : client.addresses) {
+            clientsByAddress.computeIfAbsent(address, k -> ConcurrentHashMap.newKeySet()).add(client);
+        }
+        logger.debug("client subscribed to {} addresses, {} clients connected", client.addresses.size(),
+                clients.size());
+    }
+
+    private void remove(Client client) {
+        if (!clients.remove(client)) {
+            return;
+        }
+        for (String address : client.addresses) {
+            Set<Client> remaining = clientsByAddress.computeIfPresent(address, (k, subscribers) -> {
+                subscribers.remove(client);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            if (remaining == null) {
+                unsubscribeListener.accept(address);
+            }
+        }
+        try {
+            client.eventOutput.close();
+        } catch (IOException ignored) {
+        }
+        logger.debug("client removed, {} clients connected", clients.size());
+    }
+
+    /**
+     * Removes the clients, whose connection has been closed since the last event has been sent to them.
+     */
+    private void removeClosed() {
+        for (Client client : clients) {
+            if (client.eventOutput.isClosed()) {
+                remove(client);
+            }
+        }
+    }
+
+    private void keepAlive() {
+        removeClosed();
+        if (!clients.isEmpty()) {
+            OutboundEvent event = new OutboundEvent.Builder().comment("keep-alive").build();
+            for (Client client : clients) {
+                client.enqueue(event);
+            }
+        }
+    }
+
+    /**
+     * Returns true if at least one client has subscribed the given address.
+     */
+    public boolean hasSubscribers(String address) {
+        return clientsByAddress.containsKey(address);
+    }
+
+    /**
+     * Sends an event to all clients, which have subscribed the given address.
+     *
+     * @param address
+     *            - the item address of the event
+     * @param eventObject
+     *            - bean that can be converted to a JSON object.
+     */
+    public void broadcast(String address, Object eventObject) {
+        Set<Client> subscribers = clientsByAddress.get(address);
+        if (subscribers != null) {
+            send(subscribers, eventObject);
+        }
+    }
+
+    /**
+     * Sends an event to all clients.
+     *
+     * @param eventObject
+     *            - bean that can be converted to a JSON object.
+     */
+    public void broadcast(Object eventObject) {
+        send(clients, eventObject);
+    }
+
+    private void send(Collection<Client> receivers, Object eventObject) {
+        OutboundEvent event = SseUtil.buildEvent(eventObject);
+        for (Client client : receivers) {
+            client.enqueue(event);
+        }
+    }
+
+    /**
+     * Closes all clients and stops the writer threads.
+     */
+    public void closeAll() {
+        for (Client client : clients) {
+            remove(client);
+        }
+        writerService.shutdownNow();
+    }
+}
@@ -12,6 +12,10 @@ import java.io.File;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.xml.XMLConstants;
@@ -93,6 +97,21 @@ public class VisuConfig {
 
     private ObjectFactory factory = new ObjectFactory();
 
+    /**
+     * the JAXBContext is thread safe and expensive to create, so it is shared by all configs
+     */
+    private static JAXBContext jaxbContext;
+
+    /**
+     * parsed XSD schemas by their path
+     */
+    private static final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * names of the items referenced by the sitemap
+     */
+    private final Set<String> itemNames = new HashSet<>();
+
     public VisuConfig(Sitemap sitemap, CometVisuApp app, File rootFolder) {
         this.sitemap = sitemap;
         this.app = app;
@@ -139,11 +158,8 @@ public class VisuConfig {
     private String marshal(Pages bean, String xsdSchema) {
         String res = "";
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(bean.getClass());
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = (xsdSchema == null || xsdSchema.trim().length() == 0) ? null
-                    : schemaFactory.newSchema(new File(xsdSchema));
-            Marshaller marshaller = jaxbContext.createMarshaller();
+            Schema schema = (xsdSchema == null || xsdSchema.trim().length() == 0) ? null : getSchema(xsdSchema);
+            Marshaller marshaller = getJaxbContext().createMarshaller();
             marshaller.setSchema(schema);
             marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
             marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
@@ -158,6 +174,31 @@ public class VisuConfig {
         return res;
     }
 
+    private static synchronized JAXBContext getJaxbContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(SchemaPages.class);
+        }
+        return jaxbContext;
+    }
+
+    private static Schema getSchema(String xsdSchema) throws SAXException {
+        Schema schema = schemas.get(xsdSchema);
+        if (schema == null) {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            schema = schemaFactory.newSchema(new File(xsdSchema));
+            schemas.put(xsdSchema, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Returns the names of all items, which have been referenced by the sitemap during the last generation of the
+     * config. Items that could not be found are included too.
+     */
+    public Set<String> getItemNames() {
+        return itemNames;
+    }
+
     private Pages createPages(Pages pagesBean) {
         Page rootPage = new Page();
         rootPage.setName(sitemap.getName());
@@ -194,6 +235,7 @@ public class VisuConfig {
     private void processWidget(Object rootPage, Widget widget, Pages pages, int level) {
         Item item = null;
         if (widget.getItem() != null) {
+            itemNames.add(widget.getItem());
             try {
                 item = app.getItemUIRegistry().getItem(widget.getItem());
             } catch (ItemNotFoundException e) {
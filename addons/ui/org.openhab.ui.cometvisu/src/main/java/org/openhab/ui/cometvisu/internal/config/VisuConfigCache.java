@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.model.sitemap.Sitemap;
+import org.openhab.ui.cometvisu.internal.servlet.CometVisuApp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the configs generated from the sitemaps. A config is cached per sitemap and requested path, as the path
+ * determines the relative location of the XSD schema in the generated XML.
+ *
+ * A cached config is generated again if the sitemap model has been reloaded, or if one of the items
+ * referenced by the sitemap has been added, removed or updated in the ItemRegistry.
+ *
+ * @author agent
+ * @since 2.3.0
+ */
+public class VisuConfigCache implements ItemRegistryChangeListener {
+    private final Logger logger = LoggerFactory.getLogger(VisuConfigCache.class);
+
+    private final Map<String, CachedConfig> configs = new ConcurrentHashMap<>();
+
+    /**
+     * incremented on every invalidation, a config generated during an invalidation is not cached
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * A generated config, rendered as XML.
+     */
+    public static class CachedConfig {
+        private final Sitemap sitemap;
+        private final Set<String> itemNames;
+        private final byte[] xml;
+        private final byte[] gzippedXml;
+        private final String eTag;
+
+        CachedConfig(Sitemap sitemap, Set<String> itemNames, byte[] xml) throws IOException {
+            this.sitemap = sitemap;
+            this.itemNames = itemNames;
+            this.xml = xml;
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(xml.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(xml);
+            }
+            this.gzippedXml = out.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(xml);
+            this.eTag = sitemap.getName() + "_" + xml.length + "_" + Long.toHexString(crc.getValue());
+        }
+
+        /**
+         * Returns the UTF-8 encoded XML.
+         */
+        public byte[] getXml() {
+            return xml;
+        }
+
+        /**
+         * Returns the gzip compressed UTF-8 encoded XML.
+         */
+        public byte[] getGzippedXml() {
+            return gzippedXml;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    /**
+     * Returns the cached config of the sitemap for the given request, the config is generated if it is not cached yet.
+     *
+     * @param sitemap
+     *            - the sitemap
+     * @param req
+     *            - the request for the config
+     * @param app
+     *            - the CometVisu application
+     * @param rootFolder
+     *            - the root folder of the CometVisu client
+     * @return the config
+     * @throws IOException
+     *             if the config could not be compressed
+     */
+    public CachedConfig getConfig(Sitemap sitemap, HttpServletRequest req, CometVisuApp app, File rootFolder)
+            throws IOException {
+        String key = sitemap.getName() + ":" + req.getPathInfo();
+        CachedConfig config = configs.get(key);
+        // the sitemap providers return a new model instance after the sitemap file has been changed
+        if (config != null && config.sitemap == sitemap) {
+            return config;
+        }
+
+        long start = System.nanoTime();
+        long currentGeneration = generation.get();
+        VisuConfig visuConfig = new VisuConfig(sitemap, app, rootFolder);
+        byte[] xml = visuConfig.getConfigXml(req).getBytes(StandardCharsets.UTF_8);
+        config = new CachedConfig(sitemap, visuConfig.getItemNames(), xml);
+        if (xml.length > 0 && generation.get() == currentGeneration) {
+            configs.put(key, config);
+        }
+        logger.debug("generated config '{}' in {} ms", key, (System.nanoTime() - start) / 1000000);
+        return config;
+    }
+
+    /**
+     * Removes all cached configs, which reference one of the given item names.
+     */
+    private void invalidate(Collection<String> itemNames) {
+        generation.incrementAndGet();
+        configs.values().removeIf(config -> itemNames.stream().anyMatch(config.itemNames::contains));
+    }
+
+    private void invalidate(Item item) {
+        Set<String> names = new HashSet<>(item.getGroupNames());
+        names.add(item.getName());
+        invalidate(names);
+    }
+
+    /**
+     * Removes all cached configs.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        configs.clear();
+    }
+
+    @Override
+    public void added(Item element) {
+        invalidate(element);
+    }
+
+    @Override
+    public void removed(Item element) {
+        invalidate(element);
+    }
+
+    @Override
+    public void updated(Item oldElement, Item element) {
+        invalidate(oldElement);
+        invalidate(element);
+    }
+
+    @Override
+    public void allItemsChanged(Collection<String> oldItemNames) {
+        clear();
+    }
+}
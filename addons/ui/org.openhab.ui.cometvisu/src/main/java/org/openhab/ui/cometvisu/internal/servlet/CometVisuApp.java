@@ -27,6 +27,7 @@ import org.eclipse.smarthome.model.sitemap.SitemapProvider;
 import org.eclipse.smarthome.ui.icon.IconProvider;
 import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 import org.openhab.ui.cometvisu.internal.Config;
+import org.openhab.ui.cometvisu.internal.config.VisuConfigCache;
 import org.openhab.ui.cometvisu.internal.util.ClientInstaller;
 import org.openhab.ui.cometvisu.php.PHProvider;
 import org.osgi.framework.BundleContext;
@@ -66,6 +67,8 @@ public class CometVisuApp {
 
     private final ClientInstaller installer = ClientInstaller.getInstance();
 
+    private final VisuConfigCache configCache = new VisuConfigCache();
+
     private Map<String, Object> properties = new HashMap<>();
 
     public Map<String, Object> getProperties() {
@@ -120,6 +123,7 @@ public class CometVisuApp {
 
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
+        this.itemRegistry.addRegistryChangeListener(configCache);
     }
 
     public ItemRegistry getItemRegistry() {
@@ -127,6 +131,7 @@ public class CometVisuApp {
     }
 
     protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry.removeRegistryChangeListener(configCache);
         this.itemRegistry = null;
     }
 
@@ -140,10 +145,12 @@ public class CometVisuApp {
 
     public void addSitemapProvider(SitemapProvider provider) {
         sitemapProviders.add(provider);
+        configCache.clear();
     }
 
     public void removeSitemapProvider(SitemapProvider provider) {
         sitemapProviders.remove(provider);
+        configCache.clear();
     }
 
     public ItemUIRegistry getItemUIRegistry() {
@@ -154,6 +161,10 @@ public class CometVisuApp {
         return sitemapProviders;
     }
 
+    public VisuConfigCache getConfigCache() {
+        return configCache;
+    }
+
     protected void setHttpService(HttpService httpService) {
         this.httpService = httpService;
     }
@@ -279,6 +290,8 @@ public class CometVisuApp {
             unregisterServlet();
         }
         readConfiguration(configProps);
+        // the rendered configs use the icon and mapping settings, which may have changed
+        configCache.clear();
         if (configProps.containsKey(Config.COMETVISU_WEBFOLDER_PROPERTY)
                 || configProps.containsKey(Config.COMETVISU_WEBAPP_ALIAS_PROPERTY)) {
             registerServlet();
@@ -15,16 +15,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.io.RandomAccessFile;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -54,6 +57,7 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringEscapeUtils;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
@@ -64,11 +68,12 @@ import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.model.sitemap.Sitemap;
 import org.eclipse.smarthome.model.sitemap.SitemapProvider;
 import org.openhab.ui.cometvisu.internal.Config;
 import org.openhab.ui.cometvisu.internal.config.ConfigHelper.Transform;
-import org.openhab.ui.cometvisu.internal.config.VisuConfig;
+import org.openhab.ui.cometvisu.internal.config.VisuConfigCache.CachedConfig;
 import org.openhab.ui.cometvisu.internal.editor.dataprovider.beans.DataBean;
 import org.openhab.ui.cometvisu.internal.editor.dataprovider.beans.ItemBean;
 import org.openhab.ui.cometvisu.internal.rss.beans.Feed;
@@ -96,13 +101,14 @@ public class CometVisuServlet extends HttpServlet {
     private static final long DEFAULT_EXPIRE_TIME = 604800000L; // ..ms = 1
                                                                 // week.
     private static final String MULTIPART_BOUNDARY = "MULTIPART_BYTERANGES";
+    private static final String RSS_PUB_DATE_PATTERN = "EEE, dd MMM yyyy HH:mm:ss Z";
+    private static final int RSS_LOG_ENTRIES = 25;
 
     private Pattern sitemapPattern = Pattern.compile(".*/visu_config_?(oh_)?([^\\.]+)?\\.xml");
     private Pattern configStorePattern = Pattern.compile("config/visu_config_oh_([a-z0-9_]+)\\.xml");
 
     private String rssLogPath = "/plugins/rsslog/rsslog_oh.php";
     private final String rssLogMessageSeparator = "\\|";
-    private DateFormat rssPubDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.ENGLISH);
 
     protected String root;
     protected File rootFolder;
@@ -117,6 +123,10 @@ public class CometVisuServlet extends HttpServlet {
 
     private CometVisuApp cometVisuApp;
 
+    private final RssLogCache rssLogCache = new RssLogCache();
+
+    private final StaticFileCache staticFileCache = new StaticFileCache();
+
     public CometVisuServlet(String filesystemDir, CometVisuApp cometVisuApp) {
         root = filesystemDir;
         rootFolder = new File(root);
@@ -231,13 +241,7 @@ public class CometVisuServlet extends HttpServlet {
                 Sitemap sitemap = getSitemap(matcher.group(2));
                 if (sitemap != null) {
                     logger.debug("reading sitemap '{}'", sitemap);
-                    VisuConfig config = new VisuConfig(sitemap, cometVisuApp, rootFolder);
-
-                    // logger.info("response: "+config.getConfigXml());
-                    resp.setContentType(MediaType.APPLICATION_XML);
-                    resp.getWriter().write(config.getConfigXml(req));
-                    resp.flushBuffer();
-
+                    processConfigRequest(sitemap, req, resp);
                     return;
                 } else {
                     logger.debug("Config file not found. Neither as normal config ('{}') nor as sitemap ('{}.sitemap')",
@@ -350,6 +354,7 @@ public class CometVisuServlet extends HttpServlet {
                     // persistance services
                     cometVisuApp.getEventPublisher()
                             .post(ItemEventFactory.createCommandEvent(items.get(0).getName(), command));
+                    rssLogCache.clear();
                 }
                 // send empty response??
                 response.setContentType("text/plain");
@@ -377,127 +382,183 @@ public class CometVisuServlet extends HttpServlet {
                         "Cannot execute query: It is not possible to delete data from openHAB PersistenceService");
                 response.flushBuffer();
             } else {
-                Feed feed = new Feed();
-                feed.feedUrl = request.getRequestURL().toString();
-                feed.title = "RSS supplied logs";
-                feed.link = request.getRequestURL().toString();
-                feed.author = "";
-                feed.description = "RSS supplied logs";
-                feed.type = "rss20";
-                // Define the data filter
-                FilterCriteria filter = new FilterCriteria();
-                Calendar start = Calendar.getInstance();
-                // retrieve only the historic states from the last 7 days + BeginDate is required for RRD4j service
-                start.add(Calendar.DAY_OF_YEAR, -7);
-                // Date end = new Date();
-                filter.setBeginDate(start.getTime());
-                // filter.setEndDate(end);
-                filter.setPageSize(25);
-                filter.setOrdering(Ordering.DESCENDING);
-
-                for (Item item : items) {
-                    filter.setItemName(item.getName());
-                    Iterator<Entry<String, QueryablePersistenceService>> pit = CometVisuApp.getPersistenceServices()
-                            .entrySet().iterator();
-                    QueryablePersistenceService persistenceService = pit.next().getValue();
-                    // Get the data from the persistence store
-                    Iterable<HistoricItem> result = persistenceService.query(filter);
-                    Iterator<HistoricItem> it = result.iterator();
-                    boolean forceStop = false;
-                    while (!forceStop && !it.hasNext()) {
-                        if (pit.hasNext()) {
-                            persistenceService = pit.next().getValue();
-                            result = persistenceService.query(filter);
-                        } else {
-                            // no persisted data found for this item in any of
-                            // the available persistence services
-                            forceStop = true;
-                        }
-                    }
-                    if (it.hasNext()) {
-                        logger.debug("persisted data for item {} found in service {}", item.getName(),
-                                persistenceService.getId());
-                    }
-
-                    // Iterate through the data
-                    int i = 0;
-                    while (it.hasNext()) {
-                        i++;
-                        HistoricItem historicItem = it.next();
-                        if (historicItem.getState() == null || historicItem.getState().toString().isEmpty()) {
-                            continue;
-                        }
-                        org.openhab.ui.cometvisu.internal.rss.beans.Entry entry = new org.openhab.ui.cometvisu.internal.rss.beans.Entry();
-                        entry.publishedDate = historicItem.getTimestamp().getTime();
-                        entry.tags.add(historicItem.getName());
-                        String[] content = historicItem.getState().toString().split(rssLogMessageSeparator);
-                        if (content.length == 0) {
-                            entry.content = historicItem.getState().toString();
-                        } else if (content.length == 1) {
-                            entry.content = content[0];
-                        } else if (content.length == 2) {
-                            entry.title = content[0];
-                            entry.content = content[1];
-                        } else if (content.length == 3) {
-                            entry.title = content[0];
-                            entry.content = content[1];
-                            entry.state = content[2];
-                        } else if (content.length == 4) {
-                            entry.title = content[0];
-                            entry.content = content[1];
-                            entry.state = content[2];
-                            // ignore tags in content[3] as is is already known
-                            // by item name
-                        }
-                        feed.entries.add(entry);
-                    }
-                    if ("rrd4j".equals(persistenceService.getId())
-                            && FilterCriteria.Ordering.DESCENDING.equals(filter.getOrdering())) {
-                        // the RRD4j PersistenceService does not support descending ordering so we do it manually
-                        Collections.sort(feed.entries,
-                                new Comparator<org.openhab.ui.cometvisu.internal.rss.beans.Entry>() {
-                                    @Override
-                                    public int compare(org.openhab.ui.cometvisu.internal.rss.beans.Entry o1,
-                                            org.openhab.ui.cometvisu.internal.rss.beans.Entry o2) {
-                                        return Long.compare(o2.publishedDate, o1.publishedDate);
-                                    }
-                                });
-                    }
-                    logger.debug("querying {} item from {} to {} => {} results on service {}", filter.getItemName(),
-                            filter.getBeginDate(), filter.getEndDate(), i, persistenceService.getId());
+                boolean json = request.getParameter("j") != null;
+                String key = (json ? "json:" : "rss:") + request.getRequestURL() + ":" + request.getParameter("f");
+                String feed = rssLogCache.get(key, items);
+                if (feed == null) {
+                    long start = System.nanoTime();
+                    List<State> states = RssLogCache.getStates(items);
+                    StringWriter writer = new StringWriter();
+                    writeRssLog(queryRssLog(items, request.getRequestURL().toString()), json, writer);
+                    feed = writer.toString();
+                    rssLogCache.put(key, states, feed);
+                    logger.debug("rendered rsslog '{}' in {} ms", key, (System.nanoTime() - start) / 1000000);
                 }
-                if (request.getParameter("j") != null) {
-                    // request data in JSON format
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"responseData\": { \"feed\": " + marshalJson(feed)
-                            + "},\"responseDetails\":null,\"responseStatus\":200}");
-                } else {
-                    // request data in RSS format
-                    response.setContentType(MediaType.APPLICATION_ATOM_XML);
-                    // as the json bean structure does not map the rss structure
-                    // we cannot just marshal an XML
-                    String rss = "<?xml version=\"1.0\"?>\n<rss version=\"2.0\">\n<channel>\n";
-                    rss += "<title>" + feed.title + "</title>\n";
-                    rss += "<link>" + feed.link + "</link>\n";
-                    rss += "<desrciption>" + feed.description + "</desription>\n";
-
-                    for (org.openhab.ui.cometvisu.internal.rss.beans.Entry entry : feed.entries) {
-                        rss += "<item>";
-                        rss += "<title>" + entry.title + "</title>";
-                        rss += "<description>" + entry.content + "</description>";
-                        Date pubDate = new Date(entry.publishedDate);
-                        rss += "<pubDate>" + rssPubDateFormat.format(pubDate) + "</pubDate>";
-                        rss += "</item>\n";
-                    }
+                response.setContentType(json ? "application/json" : MediaType.APPLICATION_ATOM_XML);
+                response.getWriter().write(feed);
+                response.flushBuffer();
+            }
+        }
+    }
 
-                    rss += "</channel></rss>";
-                    response.getWriter().write(rss);
+    /**
+     * queries the newest log entries of the given items, the entries of all items are ordered by their date with
+     * the newest entry first
+     *
+     * @param items
+     * @param url
+     *            - the URL of the feed
+     * @return the feed
+     */
+    private Feed queryRssLog(List<Item> items, String url) {
+        Feed feed = new Feed();
+        feed.feedUrl = url;
+        feed.title = "RSS supplied logs";
+        feed.link = url;
+        feed.author = "";
+        feed.description = "RSS supplied logs";
+        feed.type = "rss20";
+        // Define the data filter
+        FilterCriteria filter = new FilterCriteria();
+        Calendar start = Calendar.getInstance();
+        // retrieve only the historic states from the last 7 days + BeginDate is required for RRD4j service
+        start.add(Calendar.DAY_OF_YEAR, -7);
+        filter.setBeginDate(start.getTime());
+        // only the newest entries are requested from the persistence service
+        filter.setPageSize(RSS_LOG_ENTRIES);
+        filter.setOrdering(Ordering.DESCENDING);
+
+        boolean sorted = items.size() == 1;
+        for (Item item : items) {
+            filter.setItemName(item.getName());
+            Iterator<Entry<String, QueryablePersistenceService>> pit = CometVisuApp.getPersistenceServices()
+                    .entrySet().iterator();
+            QueryablePersistenceService persistenceService = pit.next().getValue();
+            // Get the data from the persistence store
+            Iterator<HistoricItem> it = persistenceService.query(filter).iterator();
+            while (!it.hasNext() && pit.hasNext()) {
+                // no persisted data found for this item, try the next service
+                persistenceService = pit.next().getValue();
+                it = persistenceService.query(filter).iterator();
+            }
+            if (it.hasNext()) {
+                logger.debug("persisted data for item {} found in service {}", item.getName(),
+                        persistenceService.getId());
+            }
+            if ("rrd4j".equals(persistenceService.getId())) {
+                // the RRD4j PersistenceService does not support descending ordering
+                sorted = false;
+            }
 
+            // Iterate through the data
+            int i = 0;
+            while (it.hasNext()) {
+                i++;
+                HistoricItem historicItem = it.next();
+                if (historicItem.getState() == null || historicItem.getState().toString().isEmpty()) {
+                    continue;
                 }
-                response.flushBuffer();
+                feed.entries.add(createRssLogEntry(historicItem));
+            }
+            logger.debug("querying {} item from {} to {} => {} results on service {}", filter.getItemName(),
+                    filter.getBeginDate(), filter.getEndDate(), i, persistenceService.getId());
+        }
+        if (!sorted) {
+            feed.entries.sort((o1, o2) -> Long.compare(o2.publishedDate, o1.publishedDate));
+        }
+        return feed;
+    }
+
+    private org.openhab.ui.cometvisu.internal.rss.beans.Entry createRssLogEntry(HistoricItem historicItem) {
+        org.openhab.ui.cometvisu.internal.rss.beans.Entry entry = new org.openhab.ui.cometvisu.internal.rss.beans.Entry();
+        entry.publishedDate = historicItem.getTimestamp().getTime();
+        entry.tags.add(historicItem.getName());
+        String[] content = historicItem.getState().toString().split(rssLogMessageSeparator);
+        if (content.length == 0) {
+            entry.content = historicItem.getState().toString();
+        } else if (content.length == 1) {
+            entry.content = content[0];
+        } else if (content.length == 2) {
+            entry.title = content[0];
+            entry.content = content[1];
+        } else if (content.length == 3) {
+            entry.title = content[0];
+            entry.content = content[1];
+            entry.state = content[2];
+        } else if (content.length == 4) {
+            entry.title = content[0];
+            entry.content = content[1];
+            entry.state = content[2];
+            // ignore tags in content[3] as is is already known
+            // by item name
+        }
+        return entry;
+    }
+
+    /**
+     * writes the feed in JSON or RSS format, the entries are written one after another
+     *
+     * @param feed
+     * @param json
+     *            - true for JSON, false for RSS
+     * @param writer
+     * @throws IOException
+     */
+    private void writeRssLog(Feed feed, boolean json, Writer writer) throws IOException {
+        if (json) {
+            writer.write("{\"responseData\": { \"feed\": ");
+            new Gson().toJson(feed, writer);
+            writer.write("},\"responseDetails\":null,\"responseStatus\":200}");
+        } else {
+            // as the json bean structure does not map the rss structure
+            // we cannot just marshal an XML
+            DateFormat pubDateFormat = new SimpleDateFormat(RSS_PUB_DATE_PATTERN, Locale.ENGLISH);
+            writer.write("<?xml version=\"1.0\"?>\n<rss version=\"2.0\">\n<channel>\n");
+            writer.write("<title>" + StringEscapeUtils.escapeXml(feed.title) + "</title>\n");
+            writer.write("<link>" + StringEscapeUtils.escapeXml(feed.link) + "</link>\n");
+            writer.write("<description>" + StringEscapeUtils.escapeXml(feed.description) + "</description>\n");
+
+            for (org.openhab.ui.cometvisu.internal.rss.beans.Entry entry : feed.entries) {
+                writer.write("<item>");
+                writer.write("<title>" + StringEscapeUtils.escapeXml(entry.title) + "</title>");
+                writer.write("<description>" + StringEscapeUtils.escapeXml(entry.content) + "</description>");
+                writer.write("<pubDate>" + pubDateFormat.format(new Date(entry.publishedDate)) + "</pubDate>");
+                writer.write("</item>\n");
+            }
+
+            writer.write("</channel></rss>");
+        }
+    }
 
+    /**
+     * Serves the config generated from the given sitemap. The config is taken from the cache, if it has been
+     * generated before and neither the sitemap nor its items have been changed since.
+     */
+    private void processConfigRequest(Sitemap sitemap, HttpServletRequest req, HttpServletResponse resp)
+            throws IOException {
+        long start = System.nanoTime();
+        CachedConfig config = cometVisuApp.getConfigCache().getConfig(sitemap, req, cometVisuApp, rootFolder);
+
+        resp.setHeader("ETag", config.getETag());
+        resp.setHeader("Vary", "Accept-Encoding");
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null && matches(ifNoneMatch, config.getETag())) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            String acceptEncoding = req.getHeader("Accept-Encoding");
+            byte[] content = config.getXml();
+            if (acceptEncoding != null && accepts(acceptEncoding, "gzip")) {
+                resp.setHeader("Content-Encoding", "gzip");
+                content = config.getGzippedXml();
             }
+            resp.setContentType(MediaType.APPLICATION_XML);
+            resp.setCharacterEncoding("UTF-8");
+            resp.setContentLength(content.length);
+            resp.getOutputStream().write(content);
         }
+        resp.flushBuffer();
+
+        logger.debug("served config '{}' in {} µs", sitemap.getName(), (System.nanoTime() - start) / 1000);
     }
 
     /**
@@ -715,9 +776,12 @@ public class CometVisuServlet extends HttpServlet {
         // is supported by
         // the browser and expand content type with the one and right character
         // encoding.
-        if (contentType.startsWith("text")) {
+        boolean compressible = isCompressible(contentType);
+        if (compressible) {
             String acceptEncoding = request.getHeader("Accept-Encoding");
             acceptsGzip = acceptEncoding != null && accepts(acceptEncoding, "gzip");
+        }
+        if (contentType.startsWith("text")) {
             contentType += ";charset=UTF-8";
         }
 
@@ -736,17 +800,24 @@ public class CometVisuServlet extends HttpServlet {
         response.setHeader("ETag", eTag);
         response.setDateHeader("Last-Modified", lastModified);
         response.setDateHeader("Expires", expires);
+        response.setHeader("Vary", "Accept-Encoding");
 
         // Send requested file (part(s)) to client
         // ------------------------------------------------
 
+        // Small files are served from memory, larger files are transferred from their file channel. Of large
+        // compressible files only the compressed content is kept in memory.
+        StaticFileCache.CachedFile cached = content ? staticFileCache.get(file, compressible) : null;
+
         // Prepare streams.
-        RandomAccessFile input = null;
+        FileChannel input = null;
         OutputStream output = null;
 
         try {
             // Open streams.
-            input = new RandomAccessFile(file, "r");
+            if (content && (cached == null || cached.getContent() == null)) {
+                input = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
             output = response.getOutputStream();
 
             if (ranges.isEmpty() || ranges.get(0) == full) {
@@ -757,8 +828,16 @@ public class CometVisuServlet extends HttpServlet {
                 response.setHeader("Content-Range", "bytes " + r.start + "-" + r.end + "/" + r.total);
 
                 if (content) {
-                    if (acceptsGzip) {
-                        // The browser accepts GZIP, so GZIP the content.
+                    if (acceptsGzip && cached != null) {
+                        // The browser accepts GZIP, send the precompressed content.
+                        byte[] gzippedContent = cached.getGzippedContent();
+                        response.setHeader("Content-Encoding", "gzip");
+                        response.setHeader("Content-Length", String.valueOf(gzippedContent.length));
+                        output.write(gzippedContent);
+                        return;
+                    } else if (acceptsGzip && contentType.startsWith("text")) {
+                        // The browser accepts GZIP, so GZIP the content. Other compressible types are only sent
+                        // compressed from the cache, to not compress large scripts again on every request.
                         response.setHeader("Content-Encoding", "gzip");
                         output = new GZIPOutputStream(output, DEFAULT_BUFFER_SIZE);
                     } else {
@@ -770,7 +849,7 @@ public class CometVisuServlet extends HttpServlet {
                     }
 
                     // Copy full range.
-                    copy(input, output, r.start, r.length);
+                    copy(cached, input, output, r.start, r.length);
                 }
 
             } else if (ranges.size() == 1) {
@@ -784,7 +863,7 @@ public class CometVisuServlet extends HttpServlet {
 
                 if (content) {
                     // Copy single part range.
-                    copy(input, output, r.start, r.length);
+                    copy(cached, input, output, r.start, r.length);
                 }
 
             } else {
@@ -808,7 +887,7 @@ public class CometVisuServlet extends HttpServlet {
                         sos.println("Content-Range: bytes " + r.start + "-" + r.end + "/" + r.total);
 
                         // Copy single part range of multi part range.
-                        copy(input, output, r.start, r.length);
+                        copy(cached, input, output, r.start, r.length);
                     }
 
                     // End with multipart boundary.
@@ -1121,6 +1200,9 @@ public class CometVisuServlet extends HttpServlet {
     /**
      * Copy the given byte range of the given input to the given output.
      *
+     * @param cached
+     *            The cached content of the file or null, if the file is not cached.
+     *            If only the compressed content is cached, the range is copied from the input.
      * @param input
      *            The input to copy the given range to the given output for.
      * @param output
@@ -1132,31 +1214,37 @@ public class CometVisuServlet extends HttpServlet {
      * @throws IOException
      *             If something fails at I/O level.
      */
-    private static void copy(RandomAccessFile input, OutputStream output, long start, long length) throws IOException {
-        byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-        int read;
-
-        if (input.length() == length) {
-            // Write full range.
-            while ((read = input.read(buffer)) > 0) {
-                output.write(buffer, 0, read);
-            }
+    private void copy(StaticFileCache.CachedFile cached, FileChannel input, OutputStream output, long start,
+            long length) throws IOException {
+        if (cached != null && cached.getContent() != null) {
+            output.write(cached.getContent(), (int) start, (int) length);
         } else {
-            // Write partial range.
-            input.seek(start);
-            long toRead = length;
-
-            while ((read = input.read(buffer)) > 0) {
-                if ((toRead -= read) > 0) {
-                    output.write(buffer, 0, read);
-                } else {
-                    output.write(buffer, 0, (int) toRead + read);
+            // Let the channel transfer the range, no intermediate buffer of our own is needed.
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long transferred = input.transferTo(position, end - position, target);
+                if (transferred <= 0) {
                     break;
                 }
+                position += transferred;
             }
         }
     }
 
+    /**
+     * Returns true if files of the given content type are worth to be compressed.
+     *
+     * @param contentType
+     *            The content type of the file.
+     * @return True for text, scripts, JSON and XML documents.
+     */
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text") || contentType.endsWith("javascript") || contentType.endsWith("json")
+                || contentType.endsWith("xml");
+    }
+
     /**
      * Close the given resource.
      *
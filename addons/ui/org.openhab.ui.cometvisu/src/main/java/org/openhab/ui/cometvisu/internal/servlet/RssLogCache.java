@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * Caches the rendered feeds of the rsslog plugin per set of items and format.
+ *
+ * A new log message changes the state of its item before it is persisted, so a cached feed is rendered again as soon
+ * as the state of one of its items differs from the state at rendering time. As the message might not have been
+ * persisted at that time, a feed is cached for {@link #MAX_AGE_MS} at most.
+ *
+ * @author agent
+ * @since 2.3.0
+ */
+public class RssLogCache {
+    static final long MAX_AGE_MS = 30000;
+    static final int MAX_SIZE = 100;
+
+    private final Map<String, CachedFeed> feeds = new ConcurrentHashMap<>();
+
+    private static class CachedFeed {
+        private final String content;
+        private final List<State> states;
+        private final long created;
+
+        CachedFeed(String content, List<State> states, long created) {
+            this.content = content;
+            this.states = states;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Returns the current states of the given items, they have to be taken before the persistence services are
+     * queried.
+     */
+    public static List<State> getStates(List<Item> items) {
+        List<State> states = new ArrayList<>(items.size());
+        for (Item item : items) {
+            states.add(item.getState());
+        }
+        return states;
+    }
+
+    /**
+     * Returns the cached feed or null, if it is not cached or outdated.
+     *
+     * @param key
+     *            - the key of the feed
+     * @param items
+     *            - the items of the feed
+     */
+    public String get(String key, List<Item> items) {
+        CachedFeed feed = feeds.get(key);
+        if (feed != null && System.currentTimeMillis() - feed.created < MAX_AGE_MS
+                && feed.states.equals(getStates(items))) {
+            return feed.content;
+        }
+        return null;
+    }
+
+    /**
+     * Caches a rendered feed.
+     *
+     * @param key
+     *            - the key of the feed
+     * @param states
+     *            - the states of the items taken by {@link #getStates(List)} before the feed was queried
+     * @param content
+     *            - the rendered feed
+     */
+    public void put(String key, List<State> states, String content) {
+        long now = System.currentTimeMillis();
+        if (feeds.size() >= MAX_SIZE) {
+            feeds.values().removeIf(feed -> now - feed.created >= MAX_AGE_MS);
+            if (feeds.size() >= MAX_SIZE) {
+                feeds.clear();
+            }
+        }
+        feeds.put(key, new CachedFeed(content, states, now));
+    }
+
+    /**
+     * Removes all cached feeds.
+     */
+    public void clear() {
+        feeds.clear();
+    }
+}
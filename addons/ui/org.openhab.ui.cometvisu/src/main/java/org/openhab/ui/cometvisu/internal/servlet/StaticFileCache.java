@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the content of small static files (scripts, stylesheets, icons...) of the CometVisu client in memory, together
+ * with a gzip compressed variant of compressible files. Of larger compressible files (e.g. script bundles) only the
+ * compressed variant is kept, so they are not compressed again on every request. The least recently used files are
+ * evicted, when the cache exceeds its maximum size. A cached file is read again, if its length or modification time
+ * has changed.
+ *
+ * @author agent
+ * @since 2.3.0
+ */
+public class StaticFileCache {
+    static final long MAX_FILE_SIZE = 1024 * 1024;
+    static final long MAX_COMPRESSED_FILE_SIZE = 16 * 1024 * 1024;
+    static final long MAX_CACHE_SIZE = 32 * 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(StaticFileCache.class);
+
+    private final Map<String, CachedFile> files = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheSize;
+
+    /**
+     * The content of a static file.
+     */
+    public static class CachedFile {
+        private final long length;
+        private final long lastModified;
+        private final byte[] content;
+        private final byte[] gzippedContent;
+
+        CachedFile(long length, long lastModified, byte[] content, byte[] gzippedContent) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.content = content;
+            this.gzippedContent = gzippedContent;
+        }
+
+        /**
+         * Returns the content or null, if only the compressed variant of the file is cached.
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * Returns the gzip compressed content or null, if the file is not compressible.
+         */
+        public byte[] getGzippedContent() {
+            return gzippedContent;
+        }
+
+        private long getSize() {
+            return (content != null ? content.length : 0) + (gzippedContent != null ? gzippedContent.length : 0);
+        }
+    }
+
+    /**
+     * Returns the cached content of the given file, the file is read if it is not cached yet or has been modified.
+     *
+     * @param file
+     *            - the requested file
+     * @param compressible
+     *            - true if a gzip compressed variant should be cached too
+     * @return the cached content or null, if the file is too large to be cached or has been modified while it was read.
+     *         Of compressible files larger than {@link #MAX_FILE_SIZE} only the compressed content is returned.
+     * @throws IOException
+     *             if the file could not be read
+     */
+    public CachedFile get(File file, boolean compressible) throws IOException {
+        String key = file.getPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        synchronized (this) {
+            CachedFile cached = files.get(key);
+            if (cached != null && cached.length == length && cached.lastModified == lastModified
+                    && (!compressible || cached.gzippedContent != null)) {
+                return cached;
+            }
+        }
+        byte[] content = null;
+        byte[] gzippedContent = null;
+        if (length <= MAX_FILE_SIZE) {
+            content = Files.readAllBytes(file.toPath());
+            if (compressible) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(content);
+                }
+                gzippedContent = out.toByteArray();
+            }
+        } else if (compressible && length <= MAX_COMPRESSED_FILE_SIZE) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                Files.copy(file.toPath(), gzip);
+            }
+            gzippedContent = out.toByteArray();
+        } else {
+            return null;
+        }
+        // a file, which has been modified while it was read, is served from the file system
+        if ((content != null && content.length != length) || file.lastModified() != lastModified
+                || file.length() != length) {
+            return null;
+        }
+        CachedFile cached = new CachedFile(length, lastModified, content, gzippedContent);
+        put(key, cached);
+        return cached;
+    }
+
+    private synchronized void put(String key, CachedFile cached) {
+        CachedFile old = files.put(key, cached);
+        if (old != null) {
+            cacheSize -= old.getSize();
+        }
+        cacheSize += cached.getSize();
+
+        Iterator<CachedFile> it = files.values().iterator();
+        while (cacheSize > MAX_CACHE_SIZE && it.hasNext()) {
+            CachedFile eldest = it.next();
+            if (eldest != cached) {
+                cacheSize -= eldest.getSize();
+                it.remove();
+            }
+        }
+        logger.trace("cached '{}', {} files with {} bytes in the cache", key, files.size(), cacheSize);
+    }
+
+    /**
+     * Removes all cached files.
+     */
+    public synchronized void clear() {
+        files.clear();
+        cacheSize = 0;
+    }
+}